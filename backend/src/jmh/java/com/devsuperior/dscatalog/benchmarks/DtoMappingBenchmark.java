@@ -0,0 +1,69 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.UserDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.entities.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+	private Product product;
+	private Category category;
+	private User user;
+
+	@Setup
+	public void setUp() {
+		category = new Category(1L, "Eletrônicos");
+		product = new Product(1L, "Smart TV", "Lorem ipsum dolor sit amet", 2190.0,
+				"https://img.com/1-big.jpg", Instant.parse("2020-07-14T10:00:00Z"));
+		product.getCategories().add(category);
+		product.getCategories().add(new Category(2L, "Computadores"));
+		product.getCategories().add(new Category(3L, "Livros"));
+		user = new User(1L, "Maria", "Green", "maria@gmail.com", "secret");
+		user.getRoles().add(new Role(1L, "ROLE_OPERATOR"));
+		user.getRoles().add(new Role(2L, "ROLE_ADMIN"));
+	}
+
+	@Benchmark
+	public ProductDTO productDto() {
+		return new ProductDTO(product);
+	}
+
+	@Benchmark
+	public ProductDTO productDtoWithCategories() {
+		return new ProductDTO(product, product.getCategories());
+	}
+
+	@Benchmark
+	public UserDTO userDto() {
+		return new UserDTO(user);
+	}
+
+	@Benchmark
+	public CategoryDTO categoryDto() {
+		return new CategoryDTO(category);
+	}
+}
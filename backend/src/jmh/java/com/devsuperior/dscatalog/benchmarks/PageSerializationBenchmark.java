@@ -0,0 +1,77 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes a {@code Page<ProductDTO>} with an ObjectMapper configured like
+ * the application's (Spring's builder defaults), at several page sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+	@Param({ "12", "20", "100", "1000" })
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private Page<ProductDTO> page;
+	private Page<ProductDTO> pageWithCategories;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		List<ProductDTO> content = new ArrayList<>(size);
+		List<ProductDTO> contentWithCategories = new ArrayList<>(size);
+		for (long i = 1; i <= size; i++) {
+			ProductDTO dto = new ProductDTO(i, "Product " + i, "Lorem ipsum dolor sit amet, consectetur adipiscing elit",
+					100.0 + i, "https://img.com/" + i + "-big.jpg", Instant.parse("2020-07-14T10:00:00Z"));
+			dto.setVersion(0);
+			content.add(dto);
+			ProductDTO withCategories = new ProductDTO(i, dto.getName(), dto.getDescription(), dto.getPrice(),
+					dto.getImgUrl(), dto.getDate());
+			withCategories.getCategories().add(new CategoryDTO(1L, "Livros"));
+			withCategories.getCategories().add(new CategoryDTO(2L, "Eletrônicos"));
+			contentWithCategories.add(withCategories);
+		}
+		page = new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+		pageWithCategories = new PageImpl<>(contentWithCategories, PageRequest.of(0, size), 10_000);
+	}
+
+	@Benchmark
+	public byte[] page() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] pageWithCategories() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(pageWithCategories);
+	}
+}
@@ -0,0 +1,62 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devsuperior.dscatalog.resources.filters.SqlMetricsFilter;
+import com.devsuperior.dscatalog.services.metrics.SqlStatistics;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Per-request cost added by the SQL metrics: tracking the statements of one
+ * request, and tracking plus recording them into a Prometheus registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlMetricsOverheadBenchmark {
+
+	@Param({ "1", "3", "10" })
+	private int statements;
+
+	private SqlStatistics listener;
+	private PrometheusMeterRegistry registry;
+
+	@Setup
+	public void setUp() {
+		listener = new SqlStatistics();
+		registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+	}
+
+	@Benchmark
+	public SqlStatistics.Counter track() {
+		SqlStatistics.start();
+		for (int i = 0; i < statements; i++) {
+			listener.beforeQuery(null, Collections.emptyList());
+			listener.afterQuery(null, Collections.emptyList());
+		}
+		return SqlStatistics.stop();
+	}
+
+	@Benchmark
+	public void trackAndRecord() {
+		SqlMetricsFilter.record(registry, "GET", "/products/{id}", track());
+	}
+}
@@ -0,0 +1,58 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Appends generated products after the seed data with plain JDBC batches and
+ * moves the product sequence past them.
+ */
+public class CatalogSeeder {
+
+	private static final int BATCH_SIZE = 5000;
+	private static final String[] WORDS = { "Smart", "TV", "Notebook", "Gamer", "Pro", "Ultra", "Livro", "Mouse",
+			"Teclado", "Monitor", "Cadeira", "Console", "Câmera", "Fone", "Caixa", "Som", "Tablet", "Impressora" };
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public CatalogSeeder(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/** Returns the total number of products afterwards. */
+	public long seed(int count) {
+		long first = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_product", Long.class) + 1;
+		List<Long> categories = jdbcTemplate.queryForList("SELECT id FROM tb_category", Long.class);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Timestamp date = Timestamp.from(Instant.parse("2020-07-14T10:00:00Z"));
+
+		List<Object[]> products = new ArrayList<>(BATCH_SIZE);
+		List<Object[]> links = new ArrayList<>(BATCH_SIZE);
+		for (long id = first; id < first + count; id++) {
+			String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+			products.add(new Object[] { id, name, "Descrição do produto " + name, 10.0 + random.nextInt(5000),
+					"https://img.com/" + id + ".jpg", date });
+			links.add(new Object[] { id, categories.get(random.nextInt(categories.size())) });
+			if (products.size() == BATCH_SIZE) {
+				flush(products, links);
+			}
+		}
+		flush(products, links);
+		jdbcTemplate.execute("ALTER SEQUENCE tb_product_seq RESTART WITH " + (first + count));
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_product", Long.class);
+	}
+
+	private void flush(List<Object[]> products, List<Object[]> links) {
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO tb_product (id, name, description, price, img_url, date) VALUES (?, ?, ?, ?, ?, ?)",
+				products);
+		jdbcTemplate.batchUpdate("INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)", links);
+		products.clear();
+		links.clear();
+	}
+}
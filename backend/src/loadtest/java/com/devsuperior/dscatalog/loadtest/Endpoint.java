@@ -0,0 +1,95 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request shapes driven by the generator; ids and pages are drawn uniformly.
+ * {@code signup} creates a user with a fresh email, so it exercises the BCrypt
+ * hashing pool alongside the reads. {@code insert} posts one product and
+ * {@code batch-insert} posts {@code loadtest.batch-size} of them to
+ * {@code /products/batch}; their {@link #items} make the two comparable in
+ * products per second.
+ */
+public enum Endpoint {
+
+	PRODUCTS("products"),
+	PRODUCT("product"),
+	CATEGORIES("categories"),
+	USERS("users"),
+	SIGNUP("signup"),
+	INSERT("insert"),
+	BATCH_INSERT("batch-insert");
+
+	private static final String RUN = Long.toString(System.currentTimeMillis(), 36);
+	private static final AtomicLong SIGNUPS = new AtomicLong();
+	private static final AtomicLong INSERTS = new AtomicLong();
+
+	private final String key;
+
+	private Endpoint(String key) {
+		this.key = key;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public HttpRequest.Builder request(URI baseUri, long productCount, int batchSize) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path(productCount)));
+		if (this == SIGNUP) {
+			String email = "load-" + RUN + "-" + SIGNUPS.incrementAndGet() + "@example.com";
+			String body = "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"" + email
+					+ "\",\"password\":\"123456\",\"roles\":[{\"id\":1}]}";
+			return builder.header("Content-Type", "application/json").POST(BodyPublishers.ofString(body));
+		}
+		if (this == INSERT || this == BATCH_INSERT) {
+			StringJoiner body = this == INSERT ? new StringJoiner(",") : new StringJoiner(",", "[", "]");
+			for (int i = 0; i < items(batchSize); i++) {
+				body.add("{\"name\":\"Load product " + RUN + "-" + INSERTS.incrementAndGet()
+						+ "\",\"description\":\"Generated by the load test\",\"price\":99.9,"
+						+ "\"date\":\"2020-07-13T20:50:07Z\",\"categories\":[{\"id\":1}]}");
+			}
+			return builder.header("Content-Type", "application/json").POST(BodyPublishers.ofString(body.toString()));
+		}
+		return builder.GET();
+	}
+
+	/** Products written per request, for the throughput columns of the report. */
+	public int items(int batchSize) {
+		return this == BATCH_INSERT ? batchSize : 1;
+	}
+
+	public String path(long productCount) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		switch (this) {
+		case PRODUCTS:
+			return "/products?page=" + random.nextLong(Math.max(1, productCount / 20));
+		case PRODUCT:
+			return "/products/" + (1 + random.nextLong(productCount));
+		case CATEGORIES:
+			return "/categories";
+		case SIGNUP:
+			return "/users";
+		case INSERT:
+			return "/products";
+		case BATCH_INSERT:
+			return "/products/batch";
+		default:
+			return "/users?page=0&size=12";
+		}
+	}
+
+	public static Endpoint of(String key) {
+		for (Endpoint value : values()) {
+			if (value.key.equals(key)) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + key);
+	}
+}
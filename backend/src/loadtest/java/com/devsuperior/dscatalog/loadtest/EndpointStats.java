@@ -0,0 +1,48 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of one endpoint, in microseconds. {@code response} is measured
+ * from the moment the request was scheduled to start, so time spent queued
+ * behind slow responses is counted (coordinated-omission corrected);
+ * {@code service} is measured from the moment it was actually sent.
+ */
+public class EndpointStats {
+
+	private final Histogram response = new ConcurrentHistogram(3);
+	private final Histogram service = new ConcurrentHistogram(3);
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	public void record(long intendedNanos, long sentNanos, long completedNanos, boolean success) {
+		response.recordValue((completedNanos - intendedNanos) / 1000);
+		service.recordValue((completedNanos - sentNanos) / 1000);
+		if (!success) {
+			errors.increment();
+		}
+	}
+
+	public void dropped() {
+		dropped.increment();
+	}
+
+	public Histogram getResponse() {
+		return response;
+	}
+
+	public Histogram getService() {
+		return service;
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	public long getDropped() {
+		return dropped.sum();
+	}
+}
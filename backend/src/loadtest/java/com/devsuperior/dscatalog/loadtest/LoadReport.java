@@ -0,0 +1,105 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes one directory per run: {@code summary.csv} with throughput and
+ * percentiles per endpoint (plus an {@code all} row), and the full
+ * percentile distributions as {@code .hgrm} files, which can be compared
+ * across runs with HdrHistogram's plotter. Runs of the same invocation with
+ * different request threads are compared by {@link #compare(List)}.
+ */
+public class LoadReport {
+
+	private static final String HEADER = "endpoint,requests,errors,dropped,throughput_rps,items_per_s,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms";
+	private static final double MICROS_PER_MILLI = 1000.0;
+
+	private final LoadTestConfig config;
+	private final String threads;
+	private final RunResult result;
+
+	public LoadReport(LoadTestConfig config, String threads, RunResult result) {
+		this.config = config;
+		this.threads = threads;
+		this.result = result;
+	}
+
+	public Path write(Path root) throws IOException {
+		Path dir = root.resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-" + threads);
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve("config.txt"), config + " run=" + threads + System.lineSeparator());
+		Files.writeString(dir.resolve("summary.csv"), summary());
+		for (Map.Entry<Endpoint, EndpointStats> entry : result.getStats().entrySet()) {
+			writeDistribution(dir.resolve(entry.getKey().getKey() + ".hgrm"), entry.getValue().getResponse());
+			writeDistribution(dir.resolve(entry.getKey().getKey() + "-service.hgrm"), entry.getValue().getService());
+		}
+		return dir;
+	}
+
+	public String summary() {
+		StringBuilder out = new StringBuilder(HEADER).append('\n');
+		for (Map.Entry<Endpoint, EndpointStats> entry : result.getStats().entrySet()) {
+			EndpointStats stats = entry.getValue();
+			row(out, entry.getKey().getKey(), stats.getResponse(), stats.getErrors(), stats.getDropped(),
+					items(entry.getKey(), stats));
+		}
+		all(out, "all");
+		return out.toString();
+	}
+
+	/** The {@code all} row of each report, labelled with its request threads. */
+	public static String compare(List<LoadReport> reports) {
+		StringBuilder out = new StringBuilder(HEADER.replaceFirst("endpoint", "threads")).append('\n');
+		for (LoadReport report : reports) {
+			report.all(out, report.threads);
+		}
+		return out.toString();
+	}
+
+	private void all(StringBuilder out, String name) {
+		Histogram all = new Histogram(3);
+		long errors = 0;
+		long dropped = 0;
+		long items = 0;
+		for (Map.Entry<Endpoint, EndpointStats> entry : result.getStats().entrySet()) {
+			EndpointStats stats = entry.getValue();
+			all.add(stats.getResponse());
+			errors += stats.getErrors();
+			dropped += stats.getDropped();
+			items += items(entry.getKey(), stats);
+		}
+		row(out, name, all, errors, dropped, items);
+	}
+
+	/** Items served or written by successful requests: products for the insert endpoints, else requests. */
+	private long items(Endpoint endpoint, EndpointStats stats) {
+		return (stats.getResponse().getTotalCount() - stats.getErrors()) * endpoint.items(config.getBatchSize());
+	}
+
+	private void row(StringBuilder out, String name, Histogram histogram, long errors, long dropped, long items) {
+		double seconds = result.getElapsedNanos() / 1e9;
+		out.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n", name,
+				histogram.getTotalCount(), errors, dropped, histogram.getTotalCount() / seconds, items / seconds,
+				histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+				histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+				histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+				histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+				histogram.getMaxValue() / MICROS_PER_MILLI));
+	}
+
+	private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+			histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+		}
+	}
+}
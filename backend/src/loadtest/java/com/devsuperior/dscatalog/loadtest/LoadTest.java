@@ -0,0 +1,88 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.devsuperior.dscatalog.DscatalogApplication;
+import com.devsuperior.dscatalog.services.search.ProductFacetIndex;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
+
+/**
+ * Boots the application on H2 with a generated catalog, runs a warmup and a
+ * measured open-model load against it and writes the report. Runs offline:
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="-Dloadtest.rate=1000 -Dloadtest.duration=120"
+ * </pre>
+ *
+ * With {@code -Dloadtest.threads=both} (on a JDK 21) the same load runs on
+ * Tomcat's platform worker pool and then on virtual threads, and the totals
+ * are printed side by side.
+ *
+ * Adding {@code signup} to {@code loadtest.mix} interleaves user creation with
+ * the reads; comparing the read endpoints' percentiles with and without it
+ * shows how much password hashing leaks into read latency.
+ *
+ * Bulk against single-item inserts: run {@code -Dloadtest.mix=insert:1} and
+ * {@code -Dloadtest.mix=batch-insert:1}, raising {@code loadtest.rate} until
+ * latency climbs, and compare the {@code items_per_s} column (products
+ * written per second) at each one's ceiling.
+ *
+ * See {@link LoadTestConfig} for the settings.
+ */
+public class LoadTest {
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+		List<LoadReport> reports = new ArrayList<>();
+		for (String threads : config.getThreads()) {
+			reports.add(run(config, threads, args));
+		}
+		if (reports.size() > 1) {
+			System.out.print(LoadReport.compare(reports));
+		}
+	}
+
+	private static LoadReport run(LoadTestConfig config, String threads, String[] args) throws Exception {
+		String[] appArgs = Arrays.copyOf(args, args.length + 1);
+		appArgs[args.length] = "--app.virtual-threads.enabled=" + "virtual".equals(threads);
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(DscatalogApplication.class)
+				.properties("server.port=0", "logging.level.root=WARN")
+				.run(appArgs);
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			System.out.println("Seeding " + config.getProducts() + " products...");
+			long productCount = new CatalogSeeder(context.getBean(JdbcTemplate.class)).seed(config.getProducts());
+			context.getBean(ProductSearchIndex.class).rebuild();
+			context.getBean(ProductFacetIndex.class).rebuild();
+
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+			OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client,
+					URI.create("http://localhost:" + port), config, productCount);
+
+			System.out.println("Warming up on " + threads + " threads: " + config);
+			generator.run(config.getWarmup());
+			System.out.println("Measuring...");
+			LoadReport report = new LoadReport(config, threads, generator.run(config.getDuration()));
+			Path dir = report.write(config.getOutput());
+			System.out.print(report.summary());
+			System.out.println("Report written to " + dir.toAbsolutePath());
+			return report;
+		} finally {
+			executor.shutdownNow();
+			context.close();
+		}
+	}
+}
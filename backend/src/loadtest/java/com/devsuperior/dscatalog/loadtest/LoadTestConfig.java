@@ -0,0 +1,127 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run settings, read from system properties so a run is fully described by
+ * its command line:
+ *
+ * <pre>
+ * loadtest.rate        requests per second (default 500)
+ * loadtest.duration    measured run, ISO-8601 or seconds (default 60)
+ * loadtest.warmup      unmeasured run before it (default 15)
+ * loadtest.products    generated products on top of the seed data (default 100000)
+ * loadtest.mix         endpoint weights (default products:40,product:40,categories:10,users:10);
+ *                      add e.g. signup:5 to mix user creation (BCrypt) into the reads;
+ *                      insert:1 and batch-insert:1 post single products and batches
+ * loadtest.batch-size  products per batch-insert request (default 50)
+ * loadtest.max-in-flight  outstanding requests before arrivals are dropped (default 10000)
+ * loadtest.output      report directory root (default target/loadtest)
+ * loadtest.threads     request threads: platform, virtual (Java 21) or both, run one after the other (default platform)
+ * </pre>
+ */
+public class LoadTestConfig {
+
+	private final int rate;
+	private final Duration duration;
+	private final Duration warmup;
+	private final int products;
+	private final Map<Endpoint, Integer> mix;
+	private final int maxInFlight;
+	private final Path output;
+	private final List<String> threads;
+	private final int batchSize;
+
+	private LoadTestConfig(int rate, Duration duration, Duration warmup, int products, Map<Endpoint, Integer> mix,
+			int maxInFlight, Path output, List<String> threads, int batchSize) {
+		this.rate = rate;
+		this.duration = duration;
+		this.warmup = warmup;
+		this.products = products;
+		this.mix = mix;
+		this.maxInFlight = maxInFlight;
+		this.output = output;
+		this.threads = threads;
+		this.batchSize = batchSize;
+	}
+
+	public static LoadTestConfig fromSystemProperties() {
+		Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+		for (String entry : System.getProperty("loadtest.mix", "products:40,product:40,categories:10,users:10").split(",")) {
+			String[] parts = entry.trim().split(":");
+			mix.put(Endpoint.of(parts[0]), Integer.valueOf(parts[1]));
+		}
+		return new LoadTestConfig(
+				Integer.getInteger("loadtest.rate", 500),
+				duration(System.getProperty("loadtest.duration", "60")),
+				duration(System.getProperty("loadtest.warmup", "15")),
+				Integer.getInteger("loadtest.products", 100_000),
+				mix,
+				Integer.getInteger("loadtest.max-in-flight", 10_000),
+				Paths.get(System.getProperty("loadtest.output", "target/loadtest")),
+				threads(System.getProperty("loadtest.threads", "platform")),
+				Integer.getInteger("loadtest.batch-size", 50));
+	}
+
+	private static List<String> threads(String value) {
+		List<String> threads = "both".equals(value) ? List.of("platform", "virtual") : Arrays.asList(value.split(","));
+		for (String mode : threads) {
+			if (!mode.equals("platform") && !mode.equals("virtual")) {
+				throw new IllegalArgumentException("Unknown thread mode " + mode);
+			}
+		}
+		return threads;
+	}
+
+	private static Duration duration(String value) {
+		return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+	}
+
+	public int getRate() {
+		return rate;
+	}
+
+	public Duration getDuration() {
+		return duration;
+	}
+
+	public Duration getWarmup() {
+		return warmup;
+	}
+
+	public int getProducts() {
+		return products;
+	}
+
+	public Map<Endpoint, Integer> getMix() {
+		return mix;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public Path getOutput() {
+		return output;
+	}
+
+	public List<String> getThreads() {
+		return threads;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	@Override
+	public String toString() {
+		return "rate=" + rate + "/s duration=" + duration + " warmup=" + warmup + " products=" + products + " mix="
+				+ mix + " maxInFlight=" + maxInFlight + " threads=" + threads + " batchSize=" + batchSize;
+	}
+}
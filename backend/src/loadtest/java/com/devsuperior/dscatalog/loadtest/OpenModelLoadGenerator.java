@@ -0,0 +1,82 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model generator: requests are scheduled at a fixed arrival rate,
+ * independent of how quickly earlier ones complete, and sent asynchronously.
+ * When the server falls behind, arrivals keep their scheduled start times, so
+ * the backlog shows up in the recorded latencies instead of lowering the rate.
+ */
+public class OpenModelLoadGenerator {
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	private final HttpClient client;
+	private final URI baseUri;
+	private final LoadTestConfig config;
+	private final long productCount;
+	private final Endpoint[] wheel;
+
+	public OpenModelLoadGenerator(HttpClient client, URI baseUri, LoadTestConfig config, long productCount) {
+		this.client = client;
+		this.baseUri = baseUri;
+		this.config = config;
+		this.productCount = productCount;
+		List<Endpoint> weighted = new ArrayList<>();
+		config.getMix().forEach((endpoint, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				weighted.add(endpoint);
+			}
+		});
+		this.wheel = weighted.toArray(new Endpoint[0]);
+	}
+
+	public RunResult run(Duration duration) throws InterruptedException {
+		Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+		config.getMix().keySet().forEach(x -> stats.put(x, new EndpointStats()));
+		AtomicInteger inFlight = new AtomicInteger();
+
+		long interval = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+		long arrivals = duration.toNanos() / interval;
+		long start = System.nanoTime();
+		for (long i = 0; i < arrivals; i++) {
+			long intended = start + i * interval;
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Endpoint endpoint = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+			EndpointStats endpointStats = stats.get(endpoint);
+			if (inFlight.get() >= config.getMaxInFlight()) {
+				endpointStats.dropped();
+				continue;
+			}
+			inFlight.incrementAndGet();
+			HttpRequest request = endpoint.request(baseUri, productCount, config.getBatchSize()).timeout(REQUEST_TIMEOUT)
+					.build();
+			long sent = System.nanoTime();
+			client.sendAsync(request, BodyHandlers.discarding()).whenComplete((response, error) -> {
+				endpointStats.record(intended, sent, System.nanoTime(), error == null && response.statusCode() < 400);
+				inFlight.decrementAndGet();
+			});
+		}
+		long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		return new RunResult(stats, System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,22 @@
+package com.devsuperior.dscatalog.loadtest;
+
+import java.util.Map;
+
+public class RunResult {
+
+	private final Map<Endpoint, EndpointStats> stats;
+	private final long elapsedNanos;
+
+	public RunResult(Map<Endpoint, EndpointStats> stats, long elapsedNanos) {
+		this.stats = stats;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public Map<Endpoint, EndpointStats> getStats() {
+		return stats;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+}
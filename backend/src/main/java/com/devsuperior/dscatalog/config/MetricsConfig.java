@@ -0,0 +1,30 @@
+package com.devsuperior.dscatalog.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.devsuperior.dscatalog.services.metrics.SqlStatistics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class MetricsConfig {
+
+	@Bean
+	public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+					return ProxyDataSourceBuilder.create((DataSource) bean).name(beanName)
+							.listener(new SqlStatistics()).build();
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,80 @@
+package com.devsuperior.dscatalog.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.devsuperior.dscatalog.services.concurrency.ConnectionLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Opt-in ({@code app.virtual-threads.enabled=true}, Java 21 runtime): Tomcat
+ * runs every request, and so every controller and transactional service call
+ * it makes, on its own virtual thread, and the pooled data source is fronted
+ * by a {@link ConnectionLimiter} sized to the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService virtualThreadRequestExecutor() {
+		return newVirtualThreadPerTaskExecutor("http-vt-");
+	}
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+			ExecutorService virtualThreadRequestExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(virtualThreadRequestExecutor);
+	}
+
+	@Bean
+	public static BeanPostProcessor connectionLimiterDataSourcePostProcessor(
+			@Value("${app.virtual-threads.connection-wait:2s}") Duration connectionWait) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource) || bean instanceof ConnectionLimiter) {
+					return bean;
+				}
+				DataSource dataSource = (DataSource) bean;
+				try {
+					if (dataSource.isWrapperFor(HikariDataSource.class)) {
+						HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+						pool.validate();
+						return new ConnectionLimiter(dataSource, pool.getMaximumPoolSize(), connectionWait);
+					}
+				} catch (SQLException e) {
+					throw new BeanInitializationException("Could not inspect data source " + beanName, e);
+				}
+				return bean;
+			}
+		};
+	}
+
+	/** Compiled for Java 17, so the Java 21 API is looked up reflectively. */
+	private static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+			ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Virtual threads need a Java 21 runtime, running on " + Runtime.version(), e);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+
+public class BatchItemDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Integer index;
+	private Long id;
+	private List<FieldMessage> errors = new ArrayList<>();
+	
+	public BatchItemDTO() {
+	}
+
+	public BatchItemDTO(Integer index, Long id, List<FieldMessage> errors) {
+		this.index = index;
+		this.id = id;
+		this.errors.addAll(errors);
+	}
+
+	public Integer getIndex() {
+		return index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Boolean getSuccess() {
+		return errors.isEmpty();
+	}
+
+	public List<FieldMessage> getErrors() {
+		return errors;
+	}
+	
+}
@@ -0,0 +1,27 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResultDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private List<BatchItemDTO> items = new ArrayList<>();
+	
+	public BatchResultDTO() {
+	}
+
+	public Long getSucceeded() {
+		return items.stream().filter(BatchItemDTO::getSuccess).count();
+	}
+
+	public Long getFailed() {
+		return items.size() - getSucceeded();
+	}
+
+	public List<BatchItemDTO> getItems() {
+		return items;
+	}
+	
+}
@@ -0,0 +1,47 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Long size;
+	private Long hitCount;
+	private Long missCount;
+	private Double hitRate;
+	private Long evictionCount;
+	
+	public CacheStatsDTO() {
+	}
+
+	public CacheStatsDTO(long size, CacheStats stats) {
+		this.size = size;
+		this.hitCount = stats.hitCount();
+		this.missCount = stats.missCount();
+		this.hitRate = stats.hitRate();
+		this.evictionCount = stats.evictionCount();
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public Long getHitCount() {
+		return hitCount;
+	}
+
+	public Long getMissCount() {
+		return missCount;
+	}
+
+	public Double getHitRate() {
+		return hitRate;
+	}
+
+	public Long getEvictionCount() {
+		return evictionCount;
+	}
+	
+}
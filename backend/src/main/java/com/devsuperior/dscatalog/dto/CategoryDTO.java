@@ -3,12 +3,17 @@ package com.devsuperior.dscatalog.dto;
 import java.io.Serializable;
 
 import com.devsuperior.dscatalog.entities.Category;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 public class CategoryDTO implements Serializable{
 	private static final long serialVersionUID = 1L;
 	
 	private Long id;
 	private String name;
+	private Integer version;
+	
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long productCount;
 	
 	public CategoryDTO() {
 	}
@@ -21,6 +26,7 @@ public class CategoryDTO implements Serializable{
 	public CategoryDTO(Category category) {
 		this.id = category.getId();
 		this.name = category.getName();
+		this.version = category.getVersion();
 	}
 
 	public Long getId() {
@@ -38,5 +44,21 @@ public class CategoryDTO implements Serializable{
 	public void setName(String name) {
 		this.name = name;
 	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
+	public Long getProductCount() {
+		return productCount;
+	}
+
+	public void setProductCount(Long productCount) {
+		this.productCount = productCount;
+	}
 		
 }
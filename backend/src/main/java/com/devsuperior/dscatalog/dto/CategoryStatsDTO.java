@@ -0,0 +1,33 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+
+public class CategoryStatsDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Long id;
+	private String name;
+	private Long productCount;
+	
+	public CategoryStatsDTO() {
+	}
+
+	public CategoryStatsDTO(Long id, String name, Long productCount) {
+		this.id = id;
+		this.name = name;
+		this.productCount = productCount;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Long getProductCount() {
+		return productCount;
+	}
+	
+}
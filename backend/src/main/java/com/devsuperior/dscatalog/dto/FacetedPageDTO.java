@@ -0,0 +1,22 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+public class FacetedPageDTO<T> extends PageImpl<T> {
+	private static final long serialVersionUID = 1L;
+
+	private final FacetsDTO facets;
+
+	public FacetedPageDTO(List<T> content, Pageable pageable, long total, FacetsDTO facets) {
+		super(content, pageable, total);
+		this.facets = facets;
+	}
+
+	public FacetsDTO getFacets() {
+		return facets;
+	}
+	
+}
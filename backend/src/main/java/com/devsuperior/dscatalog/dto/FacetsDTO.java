@@ -0,0 +1,24 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FacetsDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private List<CategoryFacetDTO> categories = new ArrayList<>();
+	private List<PriceFacetDTO> prices = new ArrayList<>();
+	
+	public FacetsDTO() {
+	}
+
+	public List<CategoryFacetDTO> getCategories() {
+		return categories;
+	}
+
+	public List<PriceFacetDTO> getPrices() {
+		return prices;
+	}
+	
+}
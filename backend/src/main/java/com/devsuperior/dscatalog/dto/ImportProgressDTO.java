@@ -0,0 +1,65 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+@JsonInclude(Include.NON_EMPTY)
+public class ImportProgressDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Integer chunk;
+	private Long read;
+	private Long imported;
+	private Long failed;
+	private Boolean done;
+	private String message;
+	private List<BatchItemDTO> errors = new ArrayList<>();
+	
+	public ImportProgressDTO() {
+	}
+
+	public ImportProgressDTO(Integer chunk, Long read, Long imported, Long failed, Boolean done) {
+		this.chunk = chunk;
+		this.read = read;
+		this.imported = imported;
+		this.failed = failed;
+		this.done = done;
+	}
+
+	public Integer getChunk() {
+		return chunk;
+	}
+
+	public Long getRead() {
+		return read;
+	}
+
+	public Long getImported() {
+		return imported;
+	}
+
+	public Long getFailed() {
+		return failed;
+	}
+
+	public Boolean getDone() {
+		return done;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public List<BatchItemDTO> getErrors() {
+		return errors;
+	}
+	
+}
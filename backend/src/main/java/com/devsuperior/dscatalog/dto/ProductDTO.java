@@ -28,6 +28,7 @@ public class ProductDTO implements Serializable{
 	
 	@PastOrPresent(message = "A Data do produto tem que ser atual")
 	private Instant date;
+	private Integer version;
 	private List<CategoryDTO> categories = new ArrayList<>();
 	
 	public ProductDTO() {
@@ -49,6 +50,7 @@ public class ProductDTO implements Serializable{
 		this.price = product.getPrice();
 		this.imgUrl = product.getImgUrl();
 		this.date = product.getDate();
+		this.version = product.getVersion();
 	}
 	
 	public ProductDTO(Product product, Set<Category> categories) {
@@ -104,6 +106,14 @@ public class ProductDTO implements Serializable{
 		this.date = date;
 	}
 
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public List<CategoryDTO> getCategories() {
 		return categories;
 	}
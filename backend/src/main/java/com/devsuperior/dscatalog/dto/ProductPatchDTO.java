@@ -0,0 +1,98 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.validation.constraints.PastOrPresent;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Sparse product document for PATCH. Only the properties present in the
+ * request are applied (an explicit null clears the column); {@link #getValues()}
+ * holds them by entity attribute name in the order they were set.
+ */
+public class ProductPatchDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Long id;
+	
+	@Size(min = 5, max = 60, message = "Nome deve ter entre 5 e 60 caracteres")
+	private String name;
+	private String description;
+	
+	@Positive(message = "Preço tem que ser positivo")
+	private Double price;
+	private String imgUrl;
+	
+	@PastOrPresent(message = "A Data do produto tem que ser atual")
+	private Instant date;
+	
+	@JsonIgnore
+	private final Map<String, Object> values = new LinkedHashMap<>();
+	
+	public ProductPatchDTO() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+		values.put("name", name);
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+		values.put("description", description);
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+		values.put("price", price);
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public void setImgUrl(String imgUrl) {
+		this.imgUrl = imgUrl;
+		values.put("imgUrl", imgUrl);
+	}
+
+	public Instant getDate() {
+		return date;
+	}
+
+	public void setDate(Instant date) {
+		this.date = date;
+		values.put("date", date);
+	}
+
+	@JsonIgnore
+	public Map<String, Object> getValues() {
+		return values;
+	}
+}
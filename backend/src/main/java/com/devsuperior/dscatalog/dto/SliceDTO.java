@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class SliceDTO<T> implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private List<T> content = new ArrayList<>();
+	private Integer number;
+	private Integer size;
+	private boolean hasNext;
+	
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long totalElements;
+	
+	public SliceDTO() {
+	}
+
+	public SliceDTO(Slice<T> slice, Long totalElements) {
+		this.content = slice.getContent();
+		this.number = slice.getNumber();
+		this.size = slice.getSize();
+		this.hasNext = slice.hasNext();
+		this.totalElements = totalElements;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public Integer getNumber() {
+		return number;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public Long getTotalElements() {
+		return totalElements;
+	}
+	
+}
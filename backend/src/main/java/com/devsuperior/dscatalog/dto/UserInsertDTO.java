@@ -1,11 +1,14 @@
 package com.devsuperior.dscatalog.dto;
 
+import javax.validation.constraints.NotBlank;
+
 import com.devsuperior.dscatalog.services.validation.UserInsertValid;
 
 @UserInsertValid
 public class UserInsertDTO extends UserDTO {
 	private static final long serialVersionUID = 1L;
 
+	@NotBlank(message = "Campo obrigatório")
 	private String password;
 	
 	public UserInsertDTO() {
@@ -0,0 +1,27 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+
+public class VersionDTO implements Serializable{
+	private static final long serialVersionUID = 1L;
+	
+	private Long id;
+	private Integer version;
+	
+	public VersionDTO() {
+	}
+
+	public VersionDTO(Long id, Integer version) {
+		this.id = id;
+		this.version = version;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+	
+}
@@ -10,13 +10,19 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity 
-@Table(name = "tb_category")
+@Table(name = "tb_category", indexes = @Index(name = "idx_category_name_id", columnList = "name, id"))
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "category")
 public class Category implements Serializable{
 	private static final long serialVersionUID = 1L;
 	
@@ -31,6 +37,13 @@ public class Category implements Serializable{
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant updatedAt;
 	
+	@Version
+	@Column(columnDefinition = "integer default 0", nullable = false)
+	private Integer version;
+	
+	@Column(columnDefinition = "bigint default 0", nullable = false, insertable = false, updatable = false)
+	private Long productCount;
+	
 	@ManyToMany(mappedBy = "categories")
 	public Set<Product> products = new HashSet<>();
 	
@@ -42,6 +55,11 @@ public class Category implements Serializable{
 		this.name = name;
 	}
 
+	public Category(Long id, String name, Integer version) {
+		this(id, name);
+		this.version = version;
+	}
+
 	public Long getId() {
 		return id;
 	}
@@ -66,6 +84,14 @@ public class Category implements Serializable{
 		return updatedAt;
 	}
 	
+	public Integer getVersion() {
+		return version;
+	}
+	
+	public Long getProductCount() {
+		return productCount;
+	}
+	
 	@PrePersist
 	public void prePersist() {
 		createdAt = Instant.now();
@@ -8,8 +8,14 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 @Entity 
 @Table(name = "tb_role")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 public class Role implements Serializable{
 	private static final long serialVersionUID = 1L;
 	
@@ -1,9 +1,48 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import com.devsuperior.dscatalog.dto.VersionDTO;
 import com.devsuperior.dscatalog.entities.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Long>{
 
+	@Query("SELECT obj.version FROM Category obj WHERE obj.id = :id")
+	Optional<Integer> findVersionById(Long id);
+
+	@Query(value = "SELECT new com.devsuperior.dscatalog.dto.VersionDTO(obj.id, obj.version) FROM Category obj",
+			countQuery = "SELECT COUNT(obj) FROM Category obj")
+	Page<VersionDTO> findPageOfVersions(Pageable pageable);
+
+	@Query("SELECT obj.id FROM Category obj WHERE obj.id IN :ids")
+	List<Long> findIdsByIdIn(Collection<Long> ids);
+
+	@Query("SELECT DISTINCT cat.id FROM Product obj JOIN obj.categories cat WHERE cat.id IN :ids")
+	List<Long> findIdsInUseByIdIn(Collection<Long> ids);
+
+	@Modifying
+	@Query("DELETE FROM Category obj WHERE obj.id IN :ids")
+	int deleteByIdIn(Collection<Long> ids);
+
+	@Query("SELECT obj.id, obj.productCount FROM Category obj")
+	List<Object[]> findProductCounts();
+
+	@Query("SELECT cat.id, COUNT(obj) FROM Product obj JOIN obj.categories cat GROUP BY cat.id")
+	List<Object[]> countProductsByCategory();
+
+	@Modifying
+	@Query("UPDATE Category obj SET obj.productCount = obj.productCount + :delta WHERE obj.id = :id")
+	int addProductCount(Long id, long delta);
+
+	@Modifying
+	@Query("UPDATE Category obj SET obj.productCount = :count WHERE obj.id = :id")
+	int setProductCount(Long id, long count);
 }
@@ -1,9 +1,70 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.devsuperior.dscatalog.dto.VersionDTO;
 import com.devsuperior.dscatalog.entities.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long>{
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+	@Override
+	@EntityGraph(attributePaths = "categories")
+	Optional<Product> findById(Long id);
+
+	Slice<Product> findSliceBy(Pageable pageable);
+
+	List<Product> findAllBy(Pageable pageable);
+
+	@Query("SELECT obj.id FROM Product obj")
+	Page<Long> findPageOfIds(Pageable pageable);
+
+	@Query("SELECT obj.version FROM Product obj WHERE obj.id = :id")
+	Optional<Integer> findVersionById(Long id);
+
+	@Query("SELECT obj.version, cat.id FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id = :id")
+	List<Object[]> findVersionAndCategoryIdsById(Long id);
+
+	@Query("SELECT obj.id FROM Product obj WHERE obj.id IN :ids")
+	List<Long> findIdsByIdIn(Collection<Long> ids);
+
+	@Query(value = "SELECT new com.devsuperior.dscatalog.dto.VersionDTO(obj.id, obj.version) FROM Product obj",
+			countQuery = "SELECT COUNT(obj) FROM Product obj")
+	Page<VersionDTO> findPageOfVersions(Pageable pageable);
+
+	@Query("SELECT DISTINCT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id IN :ids")
+	List<Product> findWithCategoriesByIdIn(List<Long> ids);
+
+	@Query("SELECT obj.id, obj.price FROM Product obj WHERE obj.id > :id ORDER BY obj.id")
+	List<Object[]> findPricesAfter(Long id, Pageable pageable);
+
+	@Query("SELECT obj.id, obj.price FROM Product obj WHERE obj.id IN :ids")
+	List<Object[]> findPricesByIdIn(Collection<Long> ids);
+
+	@Query("SELECT obj.id, cat.id FROM Product obj JOIN obj.categories cat WHERE obj.id IN :ids")
+	List<Object[]> findCategoryIdsByProductIdIn(Collection<Long> ids);
+
+	@Query("SELECT obj.id FROM Product obj WHERE obj.id > :id ORDER BY obj.id")
+	List<Long> findIdsAfter(Long id, Pageable pageable);
+
+	@Query("SELECT obj.id, obj.name, obj.description, obj.price, obj.imgUrl, obj.date, obj.version, cat.id, cat.name "
+			+ "FROM Product obj LEFT JOIN obj.categories cat WHERE obj.id IN :ids ORDER BY obj.id")
+	List<Object[]> findExportRowsByIdIn(Collection<Long> ids);
+
+	@Query("SELECT obj FROM Product obj WHERE obj.id > :id ORDER BY obj.id")
+	List<Product> findNextById(Long id, Pageable pageable);
+
+	@Query("SELECT obj FROM Product obj WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id) "
+			+ "ORDER BY obj.name, obj.id")
+	List<Product> findNextByName(String name, Long id, Pageable pageable);
 
 }
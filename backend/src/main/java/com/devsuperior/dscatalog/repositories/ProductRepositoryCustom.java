@@ -0,0 +1,43 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ProductRepositoryCustom {
+
+	/**
+	 * Sets only the given attributes and increments the version in a single
+	 * UPDATE, without loading the product. Returns the number of rows updated.
+	 */
+	int patch(Long id, Map<String, Object> values);
+
+	/**
+	 * Like {@link #patch} for many products, with one batched UPDATE per
+	 * distinct set of attributes instead of one statement per product. The
+	 * products must exist; {@code values} is aligned with {@code ids}.
+	 */
+	void patchAll(List<Long> ids, List<Map<String, Object>> values);
+
+	/**
+	 * Ids of the products in any of the categories (when given) and within the
+	 * price range, with the same semantics as the faceted listing.
+	 */
+	List<Long> findIdsByFilter(Collection<Long> categoryIds, Double minPrice, Double maxPrice);
+
+	/**
+	 * Deletes the products and their category links with one statement each,
+	 * without loading them. Returns the number of products deleted.
+	 */
+	int deleteWithCategoriesByIdIn(Collection<Long> ids);
+
+	/**
+	 * A page of products with only the given attributes selected, each row
+	 * keyed by attribute name in the order given. The count query runs only
+	 * when the page does not reveal the total.
+	 */
+	Page<Map<String, Object>> findPageOfFields(List<String> fields, Pageable pageable);
+}
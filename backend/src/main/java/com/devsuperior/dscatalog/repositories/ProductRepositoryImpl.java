@@ -0,0 +1,138 @@
+package com.devsuperior.dscatalog.repositories;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.devsuperior.dscatalog.entities.Product;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/** Attribute names come from the patch DTO's setters, never from the request. */
+	@Override
+	public int patch(Long id, Map<String, Object> values) {
+		StringBuilder jpql = new StringBuilder("UPDATE Product obj SET ");
+		values.keySet().forEach(x -> jpql.append("obj.").append(x).append(" = :").append(x).append(", "));
+		jpql.append("obj.version = obj.version + 1 WHERE obj.id = :id");
+		Query query = entityManager.createQuery(jpql.toString());
+		values.forEach(query::setParameter);
+		return query.setParameter("id", id).executeUpdate();
+	}
+
+	/**
+	 * Items that set the same attributes share one prepared statement, executed
+	 * as a single JDBC batch. Values are bound through the entity's Hibernate
+	 * types, as the JPQL update would.
+	 */
+	@Override
+	public void patchAll(List<Long> ids, List<Map<String, Object>> values) {
+		Map<List<String>, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < ids.size(); i++) {
+			groups.computeIfAbsent(new ArrayList<>(new TreeSet<>(values.get(i).keySet())), x -> new ArrayList<>()).add(i);
+		}
+		SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+		AbstractEntityPersister persister = (AbstractEntityPersister) session.getFactory().getMetamodel()
+				.entityPersister(Product.class);
+		session.flush();
+		session.doWork(connection -> {
+			for (Map.Entry<List<String>, List<Integer>> group : groups.entrySet()) {
+				StringBuilder sql = new StringBuilder("UPDATE ").append(persister.getTableName()).append(" SET ");
+				group.getKey().forEach(x -> sql.append(persister.getPropertyColumnNames(x)[0]).append(" = ?, "));
+				sql.append(persister.getVersionColumnName()).append(" = ").append(persister.getVersionColumnName())
+						.append(" + 1 WHERE ").append(persister.getIdentifierColumnNames()[0]).append(" = ?");
+				try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+					for (int i : group.getValue()) {
+						int index = 1;
+						for (String attribute : group.getKey()) {
+							persister.getPropertyType(attribute).nullSafeSet(statement, values.get(i).get(attribute),
+									index++, session);
+						}
+						statement.setLong(index, ids.get(i));
+						statement.addBatch();
+					}
+					statement.executeBatch();
+				}
+			}
+		});
+	}
+
+	@Override
+	public List<Long> findIdsByFilter(Collection<Long> categoryIds, Double minPrice, Double maxPrice) {
+		boolean byCategory = categoryIds != null && !categoryIds.isEmpty();
+		StringBuilder jpql = new StringBuilder(byCategory
+				? "SELECT DISTINCT obj.id FROM Product obj JOIN obj.categories cat WHERE cat.id IN :categoryIds"
+				: "SELECT obj.id FROM Product obj WHERE 1 = 1");
+		if (minPrice != null) {
+			jpql.append(" AND obj.price >= :minPrice");
+		}
+		if (maxPrice != null) {
+			jpql.append(" AND obj.price <= :maxPrice");
+		}
+		TypedQuery<Long> query = entityManager.createQuery(jpql.append(" ORDER BY obj.id").toString(), Long.class);
+		if (byCategory) {
+			query.setParameter("categoryIds", categoryIds);
+		}
+		if (minPrice != null) {
+			query.setParameter("minPrice", minPrice);
+		}
+		if (maxPrice != null) {
+			query.setParameter("maxPrice", maxPrice);
+		}
+		return query.getResultList();
+	}
+
+	/** Hibernate clears the owned tb_product_category rows before deleting the products. */
+	@Override
+	public int deleteWithCategoriesByIdIn(Collection<Long> ids) {
+		return entityManager.createQuery("DELETE FROM Product obj WHERE obj.id IN :ids")
+				.setParameter("ids", ids).executeUpdate();
+	}
+
+	/** Attribute names are checked against the projectable fields by the service. */
+	@Override
+	public Page<Map<String, Object>> findPageOfFields(List<String> fields, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+		Root<Product> root = criteria.from(Product.class);
+		criteria.multiselect(fields.stream().map(x -> root.get(x).alias(x)).collect(Collectors.toList()));
+		criteria.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+		TypedQuery<Tuple> query = entityManager.createQuery(criteria);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			query.setMaxResults(pageable.getPageSize());
+		}
+		List<Map<String, Object>> rows = query.getResultList().stream().map(tuple -> {
+			Map<String, Object> row = new LinkedHashMap<>();
+			fields.forEach(x -> row.put(x, tuple.get(x)));
+			return row;
+		}).collect(Collectors.toList());
+		return PageableExecutionUtils.getPage(rows, pageable, () -> {
+			CriteriaQuery<Long> count = cb.createQuery(Long.class);
+			return entityManager.createQuery(count.select(cb.count(count.from(Product.class)))).getSingleResult();
+		});
+	}
+}
@@ -1,11 +1,21 @@
 package com.devsuperior.dscatalog.repositories;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.devsuperior.dscatalog.entities.User;
 
 public interface UserRepository extends JpaRepository<User, Long>{
+
+	Slice<User> findSliceBy(Pageable pageable);
 	
 	User findByEmail(String email);
 
+	@Query("SELECT obj.id, obj.email FROM User obj WHERE obj.id > :id ORDER BY obj.id")
+	List<Object[]> findEmailsAfter(Long id, Pageable pageable);
+
 }
@@ -1,6 +1,7 @@
 package com.devsuperior.dscatalog.resources;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -13,11 +14,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryStatsDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
 import com.devsuperior.dscatalog.services.CategoryService;
+import com.devsuperior.dscatalog.services.metrics.QueryBudget;
 
 
 @RestController
@@ -27,18 +36,53 @@ public class CategoryResource {
 	@Autowired
 	private CategoryService service;
 	
+	@QueryBudget(4)
 	@GetMapping
-	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable) {		
+	public ResponseEntity<Page<CategoryDTO>> findAll(Pageable pageable, WebRequest request) {		
+		if (request.checkNotModified(ETags.of(service.findPageOfVersions(pageable), service::findProductCount))) {
+			return null;
+		}
 		Page<CategoryDTO> list = service.findAllPaged(pageable);		
+		String eTag = ETags.of(list.map(x -> new VersionDTO(x.getId(), x.getVersion())), service::findProductCount);
+		return ResponseEntity.ok().eTag(eTag).body(list);
+	}
+	
+	@QueryBudget(4)
+	@GetMapping(params = "slice=true")
+	public ResponseEntity<SliceDTO<CategoryDTO>> findAllSliced(Pageable pageable,
+			@RequestParam(value = "withTotal", defaultValue = "false") Boolean withTotal) {
+		SliceDTO<CategoryDTO> list = service.findAllSliced(pageable, withTotal);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@QueryBudget(1)
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorPageDTO<CategoryDTO>> findAllByCursor(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "size", defaultValue = "20") Integer size,
+			@RequestParam(value = "sort", defaultValue = "id") String sort) {
+		CursorPageDTO<CategoryDTO> list = service.findAllByCursor(after, size, sort);
 		return ResponseEntity.ok().body(list);
 	}
 	
+	@QueryBudget(2)
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id){
+	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request){
+		if (request.checkNotModified(ETags.of(service.findVersion(id), service.findProductCount(id)))) {
+			return null;
+		}
 		CategoryDTO dto = service.findById(id);		
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion(), dto.getProductCount())).body(dto);
+	}
+	
+	@QueryBudget(1)
+	@GetMapping(value = "/{id}/stats")
+	public ResponseEntity<CategoryStatsDTO> findStats(@PathVariable Long id){
+		CategoryStatsDTO dto = service.findStats(id);
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@QueryBudget(2)
 	@PostMapping
 	public ResponseEntity<CategoryDTO> insert(@RequestBody CategoryDTO dto){
 		dto = service.insert(dto);
@@ -47,12 +91,20 @@ public class CategoryResource {
 		return ResponseEntity.created(uri).body(dto);
 	}
 	
+	@QueryBudget(3)
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto){
 		dto = service.update(id, dto);
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@DeleteMapping(params = "ids")
+	public ResponseEntity<BatchResultDTO> deleteAll(@RequestParam(value = "ids") List<Long> ids){
+		BatchResultDTO result = service.deleteAll(ids);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@QueryBudget(3)
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<CategoryDTO> delete(@PathVariable Long id){
 		service.delete(id);
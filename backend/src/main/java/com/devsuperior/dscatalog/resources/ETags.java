@@ -0,0 +1,68 @@
+package com.devsuperior.dscatalog.resources;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.springframework.data.domain.Page;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
+
+/**
+ * Strong ETags derived from entity versions. A page tag combines the total
+ * and the (id, version) of every row in order, so it changes whenever any
+ * row on the page, the page membership or the total changes. Category tags
+ * also fold in product counts, which change without a version bump. Product
+ * detail tags fold in the versions of the embedded categories, whose names
+ * change without a product version bump.
+ */
+final class ETags {
+
+	private ETags() {
+	}
+
+	static String of(Integer version) {
+		return "\"v" + version + "\"";
+	}
+
+	static String of(Integer version, long count) {
+		return "\"v" + version + "-" + count + "\"";
+	}
+
+	/** Product version first, then its categories ordered by id. */
+	static String of(List<VersionDTO> versions) {
+		long hash = 0;
+		for (VersionDTO x : versions) {
+			hash = hash * 31 + x.getId();
+			hash = hash * 31 + (x.getVersion() == null ? 0 : x.getVersion());
+		}
+		return "\"d" + Long.toHexString(hash) + "\"";
+	}
+
+	static String of(ProductDTO product) {
+		List<VersionDTO> versions = new ArrayList<>();
+		versions.add(new VersionDTO(product.getId(), product.getVersion()));
+		product.getCategories().stream().sorted(Comparator.comparing(CategoryDTO::getId))
+				.forEach(x -> versions.add(new VersionDTO(x.getId(), x.getVersion())));
+		return of(versions);
+	}
+
+	static String of(Page<VersionDTO> page) {
+		return of(page, null);
+	}
+
+	static String of(Page<VersionDTO> page, ToLongFunction<Long> counts) {
+		long hash = page.getTotalElements();
+		for (VersionDTO x : page) {
+			hash = hash * 31 + x.getId();
+			hash = hash * 31 + (x.getVersion() == null ? 0 : x.getVersion());
+			if (counts != null) {
+				hash = hash * 31 + counts.applyAsLong(x.getId());
+			}
+		}
+		return "\"p" + Long.toHexString(hash) + "\"";
+	}
+}
@@ -1,25 +1,44 @@
 package com.devsuperior.dscatalog.resources;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CacheStatsDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductPatchDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.export.ExportFormat;
+import com.devsuperior.dscatalog.services.metrics.QueryBudget;
 
 
 @RestController
@@ -29,18 +48,114 @@ public class ProductResource {
 	@Autowired
 	private ProductService service;
 	
+	@Autowired
+	private ProductImportService importService;
+	
+	@QueryBudget(2)
 	@GetMapping
-	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
-		Page<ProductDTO> list = service.findAllPaged(pageable);		
+	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable,
+			@RequestParam(value = "categoryId", required = false) List<Long> categoryIds,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "facets", defaultValue = "false") Boolean facets) {
+		if (categoryIds == null && minPrice == null && maxPrice == null && !facets) {
+			Page<ProductDTO> list = service.findAllPaged(pageable);
+			String eTag = ETags.of(list.map(x -> new VersionDTO(x.getId(), x.getVersion())));
+			return ResponseEntity.ok().eTag(eTag).body(list);
+		}
+		Page<ProductDTO> list = service.findAllFaceted(pageable, categoryIds, minPrice, maxPrice);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	/** Only conditional requests pay for the version lookup that can answer 304. */
+	@QueryBudget(4)
+	@GetMapping(headers = HttpHeaders.IF_NONE_MATCH)
+	public ResponseEntity<Page<ProductDTO>> findAllIfNoneMatch(Pageable pageable,
+			@RequestParam(value = "categoryId", required = false) List<Long> categoryIds,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "facets", defaultValue = "false") Boolean facets, WebRequest request) {
+		if (categoryIds == null && minPrice == null && maxPrice == null && !facets
+				&& request.checkNotModified(ETags.of(service.findPageOfVersions(pageable)))) {
+			return null;
+		}
+		return findAll(pageable, categoryIds, minPrice, maxPrice, facets);
+	}
+	
+	@QueryBudget(2)
+	@GetMapping(params = "fields")
+	public ResponseEntity<Page<Map<String, Object>>> findAllFields(Pageable pageable,
+			@RequestParam(value = "fields") List<String> fields) {
+		Page<Map<String, Object>> list = service.findAllFields(pageable, fields);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@QueryBudget(3)
+	@GetMapping(params = "withCategories=true")
+	public ResponseEntity<Page<ProductDTO>> findAllWithCategories(Pageable pageable) {
+		Page<ProductDTO> list = service.findAllPagedWithCategories(pageable);
 		return ResponseEntity.ok().body(list);
 	}
 	
+	@QueryBudget(2)
+	@GetMapping(params = "slice=true")
+	public ResponseEntity<SliceDTO<ProductDTO>> findAllSliced(Pageable pageable,
+			@RequestParam(value = "withTotal", defaultValue = "false") Boolean withTotal) {
+		SliceDTO<ProductDTO> list = service.findAllSliced(pageable, withTotal);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@QueryBudget(1)
+	@GetMapping(params = "after")
+	public ResponseEntity<CursorPageDTO<ProductDTO>> findAllByCursor(
+			@RequestParam(value = "after") String after,
+			@RequestParam(value = "size", defaultValue = "20") Integer size,
+			@RequestParam(value = "sort", defaultValue = "id") String sort) {
+		CursorPageDTO<ProductDTO> list = service.findAllByCursor(after, size, sort);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@QueryBudget(1)
+	@GetMapping(value = "/search")
+	public ResponseEntity<Page<ProductDTO>> search(@RequestParam(value = "q") String query, Pageable pageable) {
+		Page<ProductDTO> list = service.search(query, pageable);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/export")
+	public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+			HttpServletResponse response) throws IOException {
+		ExportFormat exportFormat = ExportFormat.of(format);
+		response.setContentType(exportFormat.getContentType());
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"products." + exportFormat.getExtension() + "\"");
+		service.export(exportFormat, response.getOutputStream());
+	}
+	
+	@GetMapping(value = "/cache/stats")
+	public ResponseEntity<CacheStatsDTO> cacheStats() {
+		CacheStatsDTO dto = service.cacheStats();
+		return ResponseEntity.ok().body(dto);
+	}
+	
+	@QueryBudget(1)
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> findById(@PathVariable Long id){
 		ProductDTO dto = service.findById(id);		
-		return ResponseEntity.ok().body(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto)).body(dto);
 	}
 	
+	@QueryBudget(2)
+	@GetMapping(value = "/{id}", headers = HttpHeaders.IF_NONE_MATCH)
+	public ResponseEntity<ProductDTO> findByIdIfNoneMatch(@PathVariable Long id, WebRequest request){
+		if (request.checkNotModified(ETags.of(service.findDetailVersions(id)))) {
+			return null;
+		}
+		return findById(id);
+	}
+	
+	@QueryBudget(6)
 	@PostMapping
 	public ResponseEntity<ProductDTO> insert(@Valid @RequestBody ProductDTO dto){
 		dto = service.insert(dto);
@@ -49,12 +164,57 @@ public class ProductResource {
 		return ResponseEntity.created(uri).body(dto);
 	}
 	
+	@PostMapping(value = "/batch")
+	public ResponseEntity<BatchResultDTO> insertAll(@RequestBody List<ProductDTO> dtos){
+		BatchResultDTO result = service.insertAll(dtos);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@PostMapping(value = "/import")
+	public void importProducts(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		ExportFormat importFormat = ExportFormat.of(format);
+		response.setContentType(ExportFormat.NDJSON.getContentType());
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		importService.importProducts(importFormat, request.getInputStream(), response.getOutputStream());
+	}
+	
+	@QueryBudget(8)
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> update(@Valid @PathVariable Long id, @RequestBody ProductDTO dto){
 		dto = service.update(id, dto);
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@QueryBudget(4)
+	@PatchMapping(value = "/{id}")
+	public ResponseEntity<Void> patch(@PathVariable Long id, @Valid @RequestBody ProductPatchDTO dto){
+		service.patch(id, dto);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@PatchMapping(value = "/batch")
+	public ResponseEntity<BatchResultDTO> patchAll(@RequestBody List<ProductPatchDTO> dtos){
+		BatchResultDTO result = service.patchAll(dtos);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@DeleteMapping(params = "ids")
+	public ResponseEntity<BatchResultDTO> deleteAll(@RequestParam(value = "ids") List<Long> ids){
+		BatchResultDTO result = service.deleteAll(ids);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@DeleteMapping
+	public ResponseEntity<BatchResultDTO> deleteByFilter(
+			@RequestParam(value = "categoryId", required = false) List<Long> categoryIds,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice){
+		BatchResultDTO result = service.deleteByFilter(categoryIds, minPrice, maxPrice);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@QueryBudget(4)
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<ProductDTO> delete(@PathVariable Long id){
 		service.delete(id);
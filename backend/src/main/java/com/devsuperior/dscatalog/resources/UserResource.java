@@ -1,6 +1,7 @@
 package com.devsuperior.dscatalog.resources;
 
 import java.net.URI;
+import java.util.List;
 
 import javax.validation.Valid;
 
@@ -15,12 +16,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.services.UserService;
+import com.devsuperior.dscatalog.services.metrics.QueryBudget;
 
 
 @RestController
@@ -30,18 +35,29 @@ public class UserResource {
 	@Autowired
 	private UserService service;
 	
+	@QueryBudget(2)
 	@GetMapping
 	public ResponseEntity<Page<UserDTO>> findAll(Pageable pageable) {
 		Page<UserDTO> list = service.findAllPaged(pageable);		
 		return ResponseEntity.ok().body(list);
 	}
 	
+	@QueryBudget(3)
+	@GetMapping(params = "slice=true")
+	public ResponseEntity<SliceDTO<UserDTO>> findAllSliced(Pageable pageable,
+			@RequestParam(value = "withTotal", defaultValue = "false") Boolean withTotal) {
+		SliceDTO<UserDTO> list = service.findAllSliced(pageable, withTotal);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@QueryBudget(1)
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<UserDTO> findById(@PathVariable Long id){
 		UserDTO dto = service.findById(id);		
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@QueryBudget(3)
 	@PostMapping
 	public ResponseEntity<UserDTO> insert(@Valid @RequestBody UserInsertDTO dto){
 		UserDTO newDto = service.insert(dto);
@@ -50,12 +66,20 @@ public class UserResource {
 		return ResponseEntity.created(uri).body(newDto);
 	}
 	
+	@PostMapping(value = "/batch")
+	public ResponseEntity<BatchResultDTO> insertAll(@RequestBody List<UserInsertDTO> dtos){
+		BatchResultDTO result = service.insertAll(dtos);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@QueryBudget(2)
 	@PutMapping(value = "/{id}")
 	public ResponseEntity<UserDTO> update(@Valid @PathVariable Long id, @RequestBody UserDTO dto){
 		dto = service.update(id, dto);
 		return ResponseEntity.ok().body(dto);
 	}
 	
+	@QueryBudget(3)
 	@DeleteMapping(value = "/{id}")
 	public ResponseEntity<UserDTO> delete(@PathVariable Long id){
 		service.delete(id);
@@ -0,0 +1,196 @@
+package com.devsuperior.dscatalog.resources.filters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.CategoryCountsChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps the serialized JSON of the first pages of the product and category
+ * listings (default size and sort, so only {@code ?page=} may vary), together
+ * with a gzip copy compressed once. Hits skip the controller, the DTO mapping
+ * and Jackson entirely and write the stored bytes as-is.
+ *
+ * Committed writes drop the affected entries; the next request regenerates
+ * them. Product writes also drop the category pages, whose product counts
+ * and ETags follow product membership. Each entry is stamped with its path's
+ * generation from before it was rendered and is only served while that
+ * generation is current, so a page rendered from pre-write data is never
+ * served after the invalidation, even if it is stored after it. Entries also
+ * expire shortly after being stored, which bounds staleness from writes this
+ * instance never hears about (other instances, bulk statements, seeding).
+ */
+@Component
+public class HotPageFilter extends OncePerRequestFilter {
+
+	private static final String PRODUCTS = "/products";
+	private static final String CATEGORIES = "/categories";
+	private static final Set<String> PATHS = Set.of(PRODUCTS, CATEGORIES);
+
+	private final Cache<String, Entry> entries;
+	private final Map<String, AtomicLong> generations = Map.of(PRODUCTS, new AtomicLong(), CATEGORIES, new AtomicLong());
+	private final int pages;
+
+	@Autowired
+	public HotPageFilter(@Value("${app.hot-pages.pages:3}") int pages,
+			@Value("${app.hot-pages.expire-after-write:30s}") Duration expireAfterWrite) {
+		this(pages, Caffeine.newBuilder().expireAfterWrite(expireAfterWrite).build());
+	}
+
+	HotPageFilter(int pages, Cache<String, Entry> entries) {
+		this.pages = pages;
+		this.entries = entries;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return key(request) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String key = key(request);
+		AtomicLong generation = generations.get(request.getRequestURI());
+		Entry entry = entries.getIfPresent(key);
+		if (entry == null || entry.generation != generation.get()) {
+			long current = generation.get();
+			ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+			chain.doFilter(request, wrapper);
+			if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+				wrapper.copyBodyToResponse();
+				return;
+			}
+			entry = new Entry(wrapper.getContentAsByteArray(), wrapper.getContentType(),
+					wrapper.getHeader(HttpHeaders.ETAG), current);
+			if (generation.get() == current) {
+				entries.put(key, entry);
+			}
+		}
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, request.getRequestURI());
+		write(entry, request, response);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		invalidate(PRODUCTS);
+		invalidate(CATEGORIES);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		invalidate(CATEGORIES);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryCountsChanged(CategoryCountsChangedEvent event) {
+		invalidate(CATEGORIES);
+	}
+
+	private void invalidate(String path) {
+		generations.get(path).incrementAndGet();
+		entries.asMap().keySet().removeIf(x -> x.startsWith(path + "?"));
+	}
+
+	private String key(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod()) || !PATHS.contains(request.getRequestURI())) {
+			return null;
+		}
+		Map<String, String[]> params = request.getParameterMap();
+		if (params.size() > 1 || (params.size() == 1 && !params.containsKey("page"))) {
+			return null;
+		}
+		int page = 0;
+		if (params.containsKey("page")) {
+			try {
+				page = Integer.parseInt(request.getParameter("page"));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return page >= 0 && page < pages ? request.getRequestURI() + "?page=" + page : null;
+	}
+
+	private static void write(Entry entry, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (entry.eTag != null) {
+			response.setHeader(HttpHeaders.ETAG, entry.eTag);
+			String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+			if (ifNoneMatch != null && (ifNoneMatch.contains(entry.eTag) || ifNoneMatch.trim().equals("*"))) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+		}
+		byte[] body = entry.identity;
+		if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+			body = entry.gzip;
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(entry.contentType);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	static final class Entry {
+		private final byte[] identity;
+		private final byte[] gzip;
+		private final String contentType;
+		private final String eTag;
+		private final long generation;
+
+		private Entry(byte[] identity, String contentType, String eTag, long generation) {
+			this.identity = identity;
+			this.gzip = gzip(identity);
+			this.contentType = contentType;
+			this.eTag = eTag;
+			this.generation = generation;
+		}
+
+		private static byte[] gzip(byte[] bytes) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(bytes);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.resources.filters;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.devsuperior.dscatalog.services.metrics.SqlStatistics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records how many SQL statements each request executed and how long they
+ * took in JDBC, tagged like {@code http.server.requests} (method and route
+ * pattern).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> registry;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlStatistics.start();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			SqlStatistics.Counter counter = SqlStatistics.stop();
+			MeterRegistry meterRegistry = registry.getIfAvailable();
+			if (meterRegistry != null) {
+				Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+				record(meterRegistry, request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN", counter);
+			}
+		}
+	}
+
+	public static void record(MeterRegistry registry, String method, String uri, SqlStatistics.Counter counter) {
+		DistributionSummary.builder("http.server.requests.sql.statements")
+				.tag("method", method).tag("uri", uri)
+				.register(registry).record(counter.getStatements());
+		Timer.builder("http.server.requests.sql.time")
+				.tag("method", method).tag("uri", uri)
+				.register(registry).record(counter.getNanos(), TimeUnit.NANOSECONDS);
+	}
+}
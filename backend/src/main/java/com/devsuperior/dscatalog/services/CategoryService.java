@@ -1,10 +1,15 @@
 package com.devsuperior.dscatalog.services;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -12,29 +17,99 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.dto.BatchItemDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryStatsDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.cache.CachedCategory;
+import com.devsuperior.dscatalog.services.cache.CategoryCache;
+import com.devsuperior.dscatalog.services.cache.CategoryProductCounts;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.pagination.KeysetPages;
 
 @Service
 public class CategoryService {
+
+	public static final int MAX_BATCH_SIZE = 1000;
 	
 	@Autowired
 	private CategoryRepository repository;
 	
-	@Transactional(readOnly = true)
+	@Autowired
+	private CategoryCache categoryCache;
+	
+	@Autowired
+	private CategoryProductCounts productCounts;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+	
 	public Page<CategoryDTO> findAllPaged(Pageable pageable){
-		Page<Category> list = repository.findAll(pageable);		
-		return list.map(x -> new CategoryDTO(x));		
+		Page<CachedCategory> list = categoryCache.snapshot().page(pageable);
+		if (list == null) {
+			return repository.findAll(pageable).map(x -> toDto(x));
+		}
+		return list.map(x -> toDto(x.toEntity()));		
+	}
+
+	public SliceDTO<CategoryDTO> findAllSliced(Pageable pageable, boolean withTotal) {
+		Page<CategoryDTO> page = findAllPaged(pageable);
+		return new SliceDTO<>(page, withTotal ? page.getTotalElements() : null);
+	}
+
+	public CursorPageDTO<CategoryDTO> findAllByCursor(String after, int size, String sort) {
+		return KeysetPages.find(after, size, sort, (sortKey, cursor, limit) -> cursor == null
+				? categoryCache.snapshot().after(sortKey, null, null, limit)
+				: categoryCache.snapshot().after(sortKey, cursor.getId(), cursor.getValue(), limit),
+				CachedCategory::getId, CachedCategory::getName, x -> toDto(x.toEntity()));
 	}
 
-	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id) {
+		CachedCategory cached = categoryCache.get(id);
+		if (cached != null) {
+			return toDto(cached.toEntity());
+		}
 		Optional<Category> optional = repository.findById(id);
-		Category category = optional.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));		
-		return new CategoryDTO(category);
+		return toDto(optional.orElseThrow(() -> new ResourceNotFoundException("Entity not Found")));
+	}
+
+	public CategoryStatsDTO findStats(Long id) {
+		CachedCategory cached = categoryCache.get(id);
+		if (cached != null) {
+			return new CategoryStatsDTO(cached.getId(), cached.getName(), productCounts.get(id));
+		}
+		Category category = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+		return new CategoryStatsDTO(category.getId(), category.getName(), productCounts.get(id));
+	}
+
+	public long findProductCount(Long id) {
+		return productCounts.get(id);
+	}
+
+	public Integer findVersion(Long id) {
+		CachedCategory category = categoryCache.get(id);
+		if (category != null) {
+			return category.getVersion();
+		}
+		return repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+	}
+
+	public Page<VersionDTO> findPageOfVersions(Pageable pageable) {
+		Page<CachedCategory> list = categoryCache.snapshot().page(pageable);
+		if (list == null) {
+			return repository.findPageOfVersions(pageable);
+		}
+		return list.map(x -> new VersionDTO(x.getId(), x.getVersion()));
 	}
 
 	@Transactional
@@ -42,7 +117,8 @@ public class CategoryService {
 		Category category = new Category();
 		category.setName(dto.getName());
 		category = repository.save(category);
-		return new CategoryDTO(category);
+		publisher.publishEvent(new CategoryChangedEvent(Operation.INSERT, category.getId()));
+		return toDto(category);
 	}
 
 	@Transactional
@@ -51,7 +127,8 @@ public class CategoryService {
 			Category category = repository.getOne(id);
 			category.setName(dto.getName());
 			category = repository.save(category);
-			return new CategoryDTO(category);
+			publisher.publishEvent(new CategoryChangedEvent(Operation.UPDATE, id));
+			return toDto(category);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
 		}		
@@ -60,12 +137,49 @@ public class CategoryService {
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			publisher.publishEvent(new CategoryChangedEvent(Operation.DELETE, id));
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
 		} catch (DataIntegrityViolationException e) {
 			throw new DataBaseException("Integrity violation");
 		}
 	}
-	
 
+	@Transactional
+	public BatchResultDTO deleteAll(List<Long> ids) {
+		if (ids.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch size must be at most " + MAX_BATCH_SIZE);
+		}
+		Set<Long> existing = new HashSet<>(repository.findIdsByIdIn(ids));
+		Set<Long> inUse = new HashSet<>(repository.findIdsInUseByIdIn(existing));
+		BatchResultDTO result = new BatchResultDTO();
+		List<Long> deletable = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			List<FieldMessage> errors = new ArrayList<>();
+			if (!existing.contains(id)) {
+				errors.add(new FieldMessage("id", "Categoria " + id + " não encontrada"));
+			} else if (inUse.contains(id)) {
+				errors.add(new FieldMessage("id", "Categoria " + id + " possui produtos"));
+			} else if (!deletable.contains(id)) {
+				deletable.add(id);
+			}
+			result.getItems().add(new BatchItemDTO(i, errors.isEmpty() ? id : null, errors));
+		}
+		if (!deletable.isEmpty()) {
+			try {
+				repository.deleteByIdIn(deletable);
+			} catch (DataIntegrityViolationException e) {
+				throw new DataBaseException("Integrity violation");
+			}
+			publisher.publishEvent(new CategoryChangedEvent(Operation.DELETE, deletable));
+		}
+		return result;
+	}
+
+	private CategoryDTO toDto(Category category) {
+		CategoryDTO dto = new CategoryDTO(category);
+		dto.setProductCount(productCounts.get(category.getId()));
+		return dto;
+	}
 }
@@ -0,0 +1,110 @@
+package com.devsuperior.dscatalog.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.devsuperior.dscatalog.dto.BatchItemDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.ImportProgressDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.cache.CategoryCache;
+import com.devsuperior.dscatalog.services.export.ExportFormat;
+import com.devsuperior.dscatalog.services.export.ProductImportReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Imports a product feed of any size. Records are parsed incrementally and
+ * handed to {@link ProductService#insertAll} in fixed-size chunks, so every
+ * chunk commits in its own transaction and only one chunk is ever in memory.
+ * The request body is read only as fast as chunks commit, which throttles the
+ * sender. A progress line is written after every chunk; chunks committed
+ * before a parse error stay committed.
+ */
+@Service
+public class ProductImportService {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryCache categoryCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${app.import.chunk-size:1000}")
+	private int chunkSize;
+
+	@PostConstruct
+	public void checkChunkSize() {
+		if (chunkSize < 1 || chunkSize > ProductService.MAX_BATCH_SIZE) {
+			throw new IllegalStateException("app.import.chunk-size must be between 1 and " + ProductService.MAX_BATCH_SIZE
+					+ ", was " + chunkSize);
+		}
+	}
+
+	public void importProducts(ExportFormat format, InputStream in, OutputStream out) {
+		int chunks = 0;
+		long read = 0;
+		long imported = 0;
+		long failed = 0;
+		try (ProductImportReader reader = format.reader(in, objectMapper, categoryCache.snapshot());
+				JsonGenerator progress = objectMapper.getFactory().createGenerator(out)
+						.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+			List<ProductDTO> chunk = new ArrayList<>(chunkSize);
+			String message = null;
+			while (true) {
+				ProductDTO dto;
+				try {
+					dto = reader.read();
+				} catch (IOException e) {
+					message = e.getMessage();
+					dto = null;
+				}
+				if (dto != null) {
+					chunk.add(dto);
+				}
+				if (chunk.size() == chunkSize || (dto == null && !chunk.isEmpty())) {
+					BatchResultDTO result = productService.insertAll(chunk);
+					ImportProgressDTO line = new ImportProgressDTO(++chunks, read + chunk.size(),
+							imported + result.getSucceeded(), failed + result.getFailed(), false);
+					for (BatchItemDTO item : result.getItems()) {
+						if (!item.getSuccess()) {
+							line.getErrors().add(new BatchItemDTO((int) read + item.getIndex(), null, item.getErrors()));
+						}
+					}
+					read = line.getRead();
+					imported = line.getImported();
+					failed = line.getFailed();
+					chunk.clear();
+					write(progress, line);
+				}
+				if (dto == null) {
+					break;
+				}
+			}
+			ImportProgressDTO summary = new ImportProgressDTO(chunks, read, imported, failed, true);
+			summary.setMessage(message);
+			write(progress, summary);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void write(JsonGenerator progress, ImportProgressDTO line) throws IOException {
+		objectMapper.writeValue(progress, line);
+		progress.writeRaw('\n');
+		progress.flush();
+	}
+}
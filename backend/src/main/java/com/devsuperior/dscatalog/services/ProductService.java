@@ -1,46 +1,286 @@
 package com.devsuperior.dscatalog.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.dto.BatchItemDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CacheStatsDTO;
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPageDTO;
+import com.devsuperior.dscatalog.dto.FacetsDTO;
+import com.devsuperior.dscatalog.dto.PriceFacetDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductPatchDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.cache.CachedCategory;
+import com.devsuperior.dscatalog.services.cache.CategoryCache;
+import com.devsuperior.dscatalog.services.cache.CategoryProductCounts;
+import com.devsuperior.dscatalog.services.cache.CountCache;
+import com.devsuperior.dscatalog.services.cache.ProductCache;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.export.ExportFormat;
+import com.devsuperior.dscatalog.services.export.ProductExportWriter;
+import com.devsuperior.dscatalog.services.metrics.QueryBudget;
+import com.devsuperior.dscatalog.services.pagination.KeysetCursor;
+import com.devsuperior.dscatalog.services.pagination.KeysetPages;
+import com.devsuperior.dscatalog.services.search.FacetIndex;
+import com.devsuperior.dscatalog.services.search.InvertedIndex.SearchResult;
+import com.devsuperior.dscatalog.services.search.ProductFacetIndex;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class ProductService {
 
+	public static final int MAX_BATCH_SIZE = 5000;
+	private static final int DELETE_CHUNK_SIZE = 1000;
+	private static final int EXPORT_CHUNK_SIZE = 500;
+	private static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "name", "description", "price", "imgUrl", "date", "version");
+
 	@Autowired
 	private ProductRepository repository;
 
 	@Autowired
 	private CategoryRepository categoryRepository;
 
+	@Autowired
+	private CategoryCache categoryCache;
+
+	@Autowired
+	private CategoryProductCounts categoryCounts;
+
+	@Autowired
+	private CountCache countCache;
+
+	@Autowired
+	private ProductCache productCache;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private ProductFacetIndex facetIndex;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@QueryBudget(2)
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAllPaged(Pageable pageable) {
 		Page<Product> list = repository.findAll(pageable);
 		return list.map(x -> new ProductDTO(x));
 	}
 
+	/** Selects only the requested columns; no entity is loaded. */
+	@Transactional(readOnly = true)
+	public Page<Map<String, Object>> findAllFields(Pageable pageable, List<String> fields) {
+		List<String> distinct = fields.stream().map(String::trim).filter(x -> !x.isEmpty()).distinct()
+				.collect(Collectors.toList());
+		if (distinct.isEmpty()) {
+			throw new BadRequestException("At least one field is required");
+		}
+		for (String field : distinct) {
+			if (!PROJECTABLE_FIELDS.contains(field)) {
+				throw new BadRequestException("Unknown field: " + field);
+			}
+		}
+		return repository.findPageOfFields(distinct, pageable);
+	}
+
+	@QueryBudget(3)
+	@Transactional(readOnly = true)
+	public Page<ProductDTO> findAllPagedWithCategories(Pageable pageable) {
+		Page<Long> ids = repository.findPageOfIds(pageable);
+		if (ids.isEmpty()) {
+			return ids.map(x -> null);
+		}
+		Map<Long, Product> products = repository.findWithCategoriesByIdIn(ids.getContent()).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		return ids.map(id -> {
+			Product product = products.get(id);
+			return new ProductDTO(product, product.getCategories());
+		});
+	}
+
+	@QueryBudget(1)
 	@Transactional(readOnly = true)
+	public Page<ProductDTO> search(String query, Pageable pageable) {
+		if (query == null || query.isBlank()) {
+			throw new BadRequestException("Search query must not be blank");
+		}
+		Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+		SearchResult result = searchIndex.search(query, (int) unsorted.getOffset() + unsorted.getPageSize());
+		long[] ids = result.getIds();
+		int from = (int) Math.min(unsorted.getOffset(), ids.length);
+		List<Long> pageIds = Arrays.stream(ids, from, ids.length).boxed().collect(Collectors.toList());
+
+		return new PageImpl<>(findAllInOrder(pageIds), unsorted, result.getTotalHits());
+	}
+
+	@Transactional(readOnly = true)
+	public FacetedPageDTO<ProductDTO> findAllFaceted(Pageable pageable, List<Long> categoryIds, Double minPrice, Double maxPrice) {
+		Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+		FacetIndex.Result result = facetIndex.query(categoryIds, minPrice, maxPrice);
+		List<Long> pageIds = Arrays.stream(result.page(unsorted.getOffset(), unsorted.getPageSize()))
+				.boxed().collect(Collectors.toList());
+
+		FacetsDTO facets = new FacetsDTO();
+		result.getCategoryCounts().forEach((id, count) -> {
+			CachedCategory category = categoryCache.get(id);
+			facets.getCategories().add(new CategoryFacetDTO(id, category != null ? category.getName() : null, count));
+		});
+		double[] bounds = result.getBounds();
+		int[] counts = result.getBucketCounts();
+		for (int i = 0; i < bounds.length; i++) {
+			facets.getPrices().add(new PriceFacetDTO(i > 0 ? bounds[i] : null, i + 1 < bounds.length ? bounds[i + 1] : null, counts[i]));
+		}
+		return new FacetedPageDTO<>(findAllInOrder(pageIds), unsorted, result.getTotal(), facets);
+	}
+
+	@Transactional(readOnly = true)
+	public SliceDTO<ProductDTO> findAllSliced(Pageable pageable, boolean withTotal) {
+		Slice<ProductDTO> slice = repository.findSliceBy(pageable).map(x -> new ProductDTO(x));
+		return new SliceDTO<>(slice, withTotal ? countCache.get(Product.class) : null);
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPageDTO<ProductDTO> findAllByCursor(String after, int size, String sort) {
+		return KeysetPages.find(after, size, sort, (sortKey, cursor, limit) -> {
+			if (cursor == null) {
+				return repository.findAllBy(PageRequest.of(0, limit, Sort.by(sortKey, "id")));
+			} else if (KeysetCursor.SORT_NAME.equals(sortKey)) {
+				return repository.findNextByName(cursor.getValue(), cursor.getId(), PageRequest.of(0, limit));
+			}
+			return repository.findNextById(cursor.getId(), PageRequest.of(0, limit));
+		}, Product::getId, Product::getName, x -> new ProductDTO(x));
+	}
+
+	@QueryBudget(1)
 	public ProductDTO findById(Long id) {
-		Optional<Product> optional = repository.findById(id);
-		Product product = optional.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
-		return new ProductDTO(product, product.getCategories());
+		return productCache.get(id, x -> {
+			Optional<Product> optional = repository.findById(x);
+			Product product = optional.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+			return new ProductDTO(product, product.getCategories());
+		});
+	}
+
+	public Integer findVersion(Long id) {
+		return repository.findVersionById(id).orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+	}
+
+	/**
+	 * Versions the product detail is rendered from: the product's own first,
+	 * then each of its categories by id (from the category cache), all from
+	 * one query.
+	 */
+	public List<VersionDTO> findDetailVersions(Long id) {
+		List<Object[]> rows = repository.findVersionAndCategoryIdsById(id);
+		if (rows.isEmpty()) {
+			throw new ResourceNotFoundException("Entity not Found");
+		}
+		List<VersionDTO> versions = new ArrayList<>();
+		versions.add(new VersionDTO(id, (Integer) rows.get(0)[0]));
+		rows.stream().filter(x -> x[1] != null).map(x -> (Long) x[1]).sorted().forEach(categoryId -> {
+			CachedCategory category = categoryCache.get(categoryId);
+			versions.add(new VersionDTO(categoryId, category != null ? category.getVersion() : null));
+		});
+		return versions;
+	}
+
+	@Transactional(readOnly = true)
+	public Page<VersionDTO> findPageOfVersions(Pageable pageable) {
+		return repository.findPageOfVersions(pageable);
+	}
+
+	public CacheStatsDTO cacheStats() {
+		return new CacheStatsDTO(productCache.size(), productCache.stats());
+	}
+
+	/**
+	 * Writes every product with its categories, reading them in keyset chunks of
+	 * {@value #EXPORT_CHUNK_SIZE} ids through scalar queries, so no entity is
+	 * attached to the persistence context and memory use does not grow with the
+	 * catalog. Chunked reads bound memory on every driver; a single streamed
+	 * query would not on MySQL Connector/J, which buffers the whole result set
+	 * unless cursor fetch is enabled on the connection.
+	 */
+	@Transactional(readOnly = true)
+	public void export(ExportFormat format, OutputStream out) {
+		try (ProductExportWriter writer = format.writer(out, objectMapper)) {
+			List<Long> ids = repository.findIdsAfter(0L, PageRequest.of(0, EXPORT_CHUNK_SIZE));
+			while (!ids.isEmpty()) {
+				ProductDTO current = null;
+				for (Object[] row : repository.findExportRowsByIdIn(ids)) {
+					if (current == null || !current.getId().equals(row[0])) {
+						if (current != null) {
+							writer.write(current);
+						}
+						current = new ProductDTO((Long) row[0], (String) row[1], (String) row[2], (Double) row[3],
+								(String) row[4], (Instant) row[5]);
+						current.setVersion((Integer) row[6]);
+					}
+					if (row[7] != null) {
+						current.getCategories().add(new CategoryDTO((Long) row[7], (String) row[8]));
+					}
+				}
+				if (current != null) {
+					writer.write(current);
+				}
+				ids = ids.size() < EXPORT_CHUNK_SIZE ? List.of()
+						: repository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.of(0, EXPORT_CHUNK_SIZE));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	@Transactional
@@ -48,30 +288,200 @@ public class ProductService {
 		Product product = new Product();
 		copyDtoToProduct(dto, product);
 		product = repository.save(product);
+		publisher.publishEvent(new ProductChangedEvent(Operation.INSERT, product.getId()));
 		return new ProductDTO(product, product.getCategories());
 	}
 
+	@Transactional
+	public BatchResultDTO insertAll(List<ProductDTO> dtos) {
+		if (dtos.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch size must be at most " + MAX_BATCH_SIZE);
+		}
+		BatchResultDTO result = new BatchResultDTO();
+		List<Product> products = new ArrayList<>();
+		List<BatchItemDTO> inserted = new ArrayList<>();
+		for (int i = 0; i < dtos.size(); i++) {
+			ProductDTO dto = dtos.get(i);
+			List<FieldMessage> errors = validate(dto);
+			BatchItemDTO item = new BatchItemDTO(i, null, errors);
+			result.getItems().add(item);
+			if (errors.isEmpty()) {
+				Product product = new Product();
+				copyDtoToProduct(dto, product);
+				products.add(product);
+				inserted.add(item);
+			}
+		}
+		repository.saveAll(products);
+		repository.flush();
+		
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < products.size(); i++) {
+			inserted.get(i).setId(products.get(i).getId());
+			ids.add(products.get(i).getId());
+		}
+		if (!ids.isEmpty()) {
+			publisher.publishEvent(new ProductChangedEvent(Operation.INSERT, ids));
+		}
+		return result;
+	}
+
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
 		try {
 			Product product = repository.getOne(id);
 			copyDtoToProduct(dto, product);
 			product = repository.save(product);
+			publisher.publishEvent(new ProductChangedEvent(Operation.UPDATE, id));
 			return new ProductDTO(product);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
 		}
 	}
 
+	@Transactional
+	public void patch(Long id, ProductPatchDTO dto) {
+		if (dto.getValues().isEmpty()) {
+			throw new BadRequestException("Patch must set at least one field");
+		}
+		if (repository.patch(id, dto.getValues()) == 0) {
+			throw new ResourceNotFoundException("Id " + id + " Not Found");
+		}
+		publisher.publishEvent(new ProductChangedEvent(Operation.UPDATE, id));
+	}
+
+	/**
+	 * Validates every item, checks the ids exist with one query and applies
+	 * the valid items with one batched UPDATE per distinct set of attributes.
+	 */
+	@Transactional
+	public BatchResultDTO patchAll(List<ProductPatchDTO> dtos) {
+		if (dtos.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch size must be at most " + MAX_BATCH_SIZE);
+		}
+		Set<Long> existing = new HashSet<>(repository.findIdsByIdIn(dtos.stream().map(ProductPatchDTO::getId)
+				.filter(Objects::nonNull).collect(Collectors.toList())));
+		BatchResultDTO result = new BatchResultDTO();
+		List<Long> ids = new ArrayList<>();
+		List<Map<String, Object>> values = new ArrayList<>();
+		for (int i = 0; i < dtos.size(); i++) {
+			ProductPatchDTO dto = dtos.get(i);
+			List<FieldMessage> errors = new ArrayList<>();
+			for (ConstraintViolation<ProductPatchDTO> violation : validator.validate(dto)) {
+				errors.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+			}
+			if (dto.getId() == null) {
+				errors.add(new FieldMessage("id", "Campo obrigatório"));
+			} else if (!existing.contains(dto.getId())) {
+				errors.add(new FieldMessage("id", "Produto " + dto.getId() + " não encontrado"));
+			}
+			if (dto.getValues().isEmpty()) {
+				errors.add(new FieldMessage("values", "Nenhum campo para atualizar"));
+			}
+			result.getItems().add(new BatchItemDTO(i, errors.isEmpty() ? dto.getId() : null, errors));
+			if (errors.isEmpty()) {
+				ids.add(dto.getId());
+				values.add(dto.getValues());
+			}
+		}
+		if (!ids.isEmpty()) {
+			repository.patchAll(ids, values);
+			publisher.publishEvent(new ProductChangedEvent(Operation.UPDATE, ids));
+		}
+		return result;
+	}
+
 	public void delete(Long id) {
 		try {
-			repository.deleteById(id);
+			List<Object[]> memberships = repository.findCategoryIdsByProductIdIn(List.of(id));
+			runDelete(() -> repository.deleteById(id));
+			memberships.forEach(x -> categoryCounts.add((Long) x[1], -1));
+			publisher.publishEvent(new ProductChangedEvent(Operation.DELETE, id));
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
+		}
+
+	}
+
+	/**
+	 * All chunks run in this one transaction: an integrity violation in any of
+	 * them rolls back every chunk and fails the request, so a returned result
+	 * always means every reported id was deleted.
+	 */
+	@Transactional
+	public BatchResultDTO deleteAll(List<Long> ids) {
+		if (ids.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch size must be at most " + MAX_BATCH_SIZE);
+		}
+		Set<Long> existing = new HashSet<>(repository.findIdsByIdIn(ids));
+		BatchResultDTO result = new BatchResultDTO();
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			List<FieldMessage> errors = new ArrayList<>();
+			if (!existing.contains(id)) {
+				errors.add(new FieldMessage("id", "Produto " + id + " não encontrado"));
+			}
+			result.getItems().add(new BatchItemDTO(i, errors.isEmpty() ? id : null, errors));
+		}
+		deleteInChunks(new ArrayList<>(existing));
+		return result;
+	}
+
+	/** All-or-nothing, like {@link #deleteAll}. */
+	@Transactional
+	public BatchResultDTO deleteByFilter(List<Long> categoryIds, Double minPrice, Double maxPrice) {
+		if ((categoryIds == null || categoryIds.isEmpty()) && minPrice == null && maxPrice == null) {
+			throw new BadRequestException("At least one filter is required");
+		}
+		List<Long> ids = repository.findIdsByFilter(categoryIds, minPrice, maxPrice);
+		deleteInChunks(ids);
+		BatchResultDTO result = new BatchResultDTO();
+		for (int i = 0; i < ids.size(); i++) {
+			result.getItems().add(new BatchItemDTO(i, ids.get(i), List.of()));
+		}
+		return result;
+	}
+
+	/** Must run inside the caller's transaction, so the chunks commit or roll back together. */
+	private void deleteInChunks(List<Long> ids) {
+		for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+			List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+			repository.findCategoryIdsByProductIdIn(chunk).forEach(x -> categoryCounts.add((Long) x[1], -1));
+			runDelete(() -> repository.deleteWithCategoriesByIdIn(chunk));
+		}
+		if (!ids.isEmpty()) {
+			publisher.publishEvent(new ProductChangedEvent(Operation.DELETE, ids));
+		}
+	}
+
+	private static void runDelete(Runnable delete) {
+		try {
+			delete.run();
 		} catch (DataIntegrityViolationException e) {
 			throw new DataBaseException("Integrity violation");
 		}
+	}
+
+	private List<ProductDTO> findAllInOrder(List<Long> ids) {
+		Map<Long, Product> products = repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		return ids.stream().filter(products::containsKey).map(id -> new ProductDTO(products.get(id)))
+				.collect(Collectors.toList());
+	}
 
+	private List<FieldMessage> validate(ProductDTO dto) {
+		List<FieldMessage> errors = new ArrayList<>();
+		for (ConstraintViolation<ProductDTO> violation : validator.validate(dto)) {
+			errors.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+		}
+		for (CategoryDTO categoryDto : dto.getCategories()) {
+			if (categoryDto.getId() == null || (categoryCache.get(categoryDto.getId()) == null
+					&& !categoryRepository.existsById(categoryDto.getId()))) {
+				Object key = categoryDto.getId() != null ? categoryDto.getId() : categoryDto.getName();
+				errors.add(new FieldMessage("categories", "Categoria " + key + " não encontrada"));
+			}
+		}
+		return errors;
 	}
 
 	private void copyDtoToProduct(ProductDTO dto, Product product) {
@@ -82,12 +492,46 @@ public class ProductService {
 		product.setImgUrl(dto.getImgUrl());
 		product.setPrice(dto.getPrice());
 		
-		product.getCategories().clear();
-		for (CategoryDTO categoryDto : dto.getCategories()) {
-			Category category = categoryRepository.getOne(categoryDto.getId());
-			product.getCategories().add(category);
-		} 
+		Set<Long> ids = dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toSet());
+		for (Iterator<Category> it = product.getCategories().iterator(); it.hasNext();) {
+			Long id = it.next().getId();
+			if (!ids.remove(id)) {
+				it.remove();
+				categoryCounts.add(id, -1);
+			}
+		}
+		List<Category> added = resolveCategories(ids);
+		product.getCategories().addAll(added);
+		added.forEach(x -> categoryCounts.add(x.getId(), 1));
 		
 	}
+
+	/**
+	 * Categories from the cache, with any misses loaded in one query. Unknown
+	 * ids are bad request input, not a missing resource, so they are all
+	 * reported as a bad request.
+	 */
+	private List<Category> resolveCategories(Set<Long> ids) {
+		List<Category> categories = new ArrayList<>();
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			CachedCategory category = categoryCache.get(id);
+			if (category != null) {
+				categories.add(category.toEntity());
+			} else {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			List<Category> loaded = categoryRepository.findAllById(missing);
+			if (loaded.size() < missing.size()) {
+				loaded.forEach(x -> missing.remove(x.getId()));
+				throw new BadRequestException("Categories not found: "
+						+ missing.stream().sorted().map(String::valueOf).collect(Collectors.joining(", ")));
+			}
+			categories.addAll(loaded);
+		}
+		return categories;
+	}
 	
 }
@@ -1,39 +1,76 @@
 package com.devsuperior.dscatalog.services;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.devsuperior.dscatalog.dto.BatchItemDTO;
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
 import com.devsuperior.dscatalog.dto.RoleDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
 import com.devsuperior.dscatalog.dto.UserDTO;
 import com.devsuperior.dscatalog.dto.UserInsertDTO;
 import com.devsuperior.dscatalog.entities.Role;
 import com.devsuperior.dscatalog.entities.User;
 import com.devsuperior.dscatalog.repositories.RoleRepository;
 import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.cache.CountCache;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.security.PasswordHasher;
+import com.devsuperior.dscatalog.services.validation.EmailFilter;
 
 @Service
 public class UserService {
 
+	public static final int MAX_BATCH_SIZE = 1000;
+
 	@Autowired
-	private BCryptPasswordEncoder passwordEncoder;
+	private PasswordHasher passwordHasher;
 	
 	@Autowired
 	private UserRepository repository;
 	
 	@Autowired
 	private RoleRepository roleRepository;
+	
+	@Autowired
+	private CountCache countCache;
+
+	@Autowired
+	private EmailFilter emailFilter;
+	
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private Validator validator;
 
 	@Transactional(readOnly = true)
 	public Page<UserDTO> findAllPaged(Pageable pageable) {
@@ -41,6 +78,12 @@ public class UserService {
 		return list.map(x -> new UserDTO(x));
 	}
 
+	@Transactional(readOnly = true)
+	public SliceDTO<UserDTO> findAllSliced(Pageable pageable, boolean withTotal) {
+		Slice<UserDTO> slice = repository.findSliceBy(pageable).map(x -> new UserDTO(x));
+		return new SliceDTO<>(slice, withTotal ? countCache.get(User.class) : null);
+	}
+
 	@Transactional(readOnly = true)
 	public UserDTO findById(Long id) {
 		Optional<User> optional = repository.findById(id);
@@ -48,21 +91,79 @@ public class UserService {
 		return new UserDTO(user);
 	}
 
-	@Transactional
 	public UserDTO insert(UserInsertDTO dto) {
-		User user = new User();
-		copyDtoToUser(dto, user);
-		user.setPassword(passwordEncoder.encode(dto.getPassword()));
-		user = repository.save(user);
-		return new UserDTO(user);
+		String password = passwordHasher.encode(dto.getPassword());
+		return transactionTemplate.execute(status -> {
+			User user = new User();
+			copyDtoToUser(dto, user);
+			user.setPassword(password);
+			emailFilter.put(user.getEmail());
+			user = repository.save(user);
+			publisher.publishEvent(new UserChangedEvent(Operation.INSERT, user.getId()));
+			return new UserDTO(user);
+		});
+	}
+
+	public BatchResultDTO insertAll(List<UserInsertDTO> dtos) {
+		if (dtos.size() > MAX_BATCH_SIZE) {
+			throw new BadRequestException("Batch size must be at most " + MAX_BATCH_SIZE);
+		}
+		BatchResultDTO result = new BatchResultDTO();
+		List<UserInsertDTO> valid = new ArrayList<>();
+		List<BatchItemDTO> inserted = new ArrayList<>();
+		Set<String> emails = new HashSet<>();
+		for (int i = 0; i < dtos.size(); i++) {
+			UserInsertDTO dto = dtos.get(i);
+			List<FieldMessage> errors = validate(dto);
+			if (errors.isEmpty() && !emails.add(dto.getEmail())) {
+				errors.add(new FieldMessage("email", "O Email " + dto.getEmail() + " está repetido no lote"));
+			}
+			BatchItemDTO item = new BatchItemDTO(i, null, errors);
+			result.getItems().add(item);
+			if (errors.isEmpty()) {
+				valid.add(dto);
+				inserted.add(item);
+			}
+		}
+		if (valid.isEmpty()) {
+			return result;
+		}
+
+		List<String> passwords = passwordHasher.encodeAll(valid.stream().map(UserInsertDTO::getPassword)
+				.collect(Collectors.toList()));
+		List<User> users = transactionTemplate.execute(status -> {
+			List<User> list = new ArrayList<>();
+			for (int i = 0; i < valid.size(); i++) {
+				User user = new User();
+				copyDtoToUser(valid.get(i), user);
+				user.setPassword(passwords.get(i));
+				emailFilter.put(user.getEmail());
+				list.add(user);
+			}
+			repository.saveAll(list);
+			repository.flush();
+			publisher.publishEvent(new UserChangedEvent(Operation.INSERT,
+					list.stream().map(User::getId).collect(Collectors.toList())));
+			return list;
+		});
+		for (int i = 0; i < users.size(); i++) {
+			inserted.get(i).setId(users.get(i).getId());
+		}
+		return result;
 	}
 
 	@Transactional
 	public UserDTO update(Long id, UserDTO dto) {
 		try {
 			User user = repository.getOne(id);
+			String email = user.getEmail();
 			copyDtoToUser(dto, user);
+			if (!Objects.equals(email, user.getEmail())) {
+				emailFilter.put(user.getEmail());
+				emailFilter.markStale();
+			}
 			user = repository.save(user);
+			publisher.publishEvent(new UserChangedEvent(Operation.UPDATE, id));
 			return new UserDTO(user);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
@@ -72,6 +173,8 @@ public class UserService {
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			emailFilter.markStale();
+			publisher.publishEvent(new UserChangedEvent(Operation.DELETE, id));
 		} catch (EmptyResultDataAccessException e) {
 			throw new ResourceNotFoundException("Id " + id + " Not Found");
 		} catch (DataIntegrityViolationException e) {
@@ -80,6 +183,14 @@ public class UserService {
 
 	}
 
+	private List<FieldMessage> validate(UserInsertDTO dto) {
+		List<FieldMessage> errors = new ArrayList<>();
+		for (ConstraintViolation<UserInsertDTO> violation : validator.validate(dto)) {
+			errors.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+		}
+		return errors;
+	}
+
 	private void copyDtoToUser(UserDTO dto, User user) {
 		
 		user.setFirstName(dto.getFirstName());
@@ -0,0 +1,41 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.entities.Category;
+
+/**
+ * Immutable category row held by {@link CategorySnapshot}. Snapshots are shared
+ * by every request, so callers that need an entity get a fresh detached copy
+ * from {@link #toEntity()} instead of the cached value.
+ */
+public final class CachedCategory {
+
+	private final Long id;
+	private final String name;
+	private final Integer version;
+
+	public CachedCategory(Long id, String name, Integer version) {
+		this.id = id;
+		this.name = name;
+		this.version = version;
+	}
+
+	public CachedCategory(Category category) {
+		this(category.getId(), category.getName(), category.getVersion());
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public Category toEntity() {
+		return new Category(id, name, version);
+	}
+}
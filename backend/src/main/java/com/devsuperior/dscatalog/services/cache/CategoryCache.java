@@ -0,0 +1,49 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+
+/**
+ * Holds the current {@link CategorySnapshot}. A new snapshot is built and
+ * swapped in after every committed category write, and periodically to pick up
+ * writes made by other instances.
+ */
+@Component
+public class CategoryCache {
+
+	@Autowired
+	private CategoryRepository repository;
+
+	private final AtomicReference<CategorySnapshot> current = new AtomicReference<>();
+
+	public CategorySnapshot snapshot() {
+		CategorySnapshot snapshot = current.get();
+		if (snapshot == null) {
+			refresh();
+			snapshot = current.get();
+		}
+		return snapshot;
+	}
+
+	public CachedCategory get(Long id) {
+		return id == null ? null : snapshot().get(id);
+	}
+
+	@Scheduled(fixedDelayString = "${app.category-cache.refresh-interval:300000}")
+	public synchronized void refresh() {
+		current.set(new CategorySnapshot(repository.findAll()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		refresh();
+	}
+}
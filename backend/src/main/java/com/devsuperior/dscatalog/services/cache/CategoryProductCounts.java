@@ -0,0 +1,182 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.CategoryCountsChangedEvent;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Number of products in each category, persisted in
+ * {@code tb_category.product_count}.
+ *
+ * Product writes report their membership changes with {@link #add}; the
+ * deltas of a transaction are summed and, once it commits, added to a
+ * per-category {@link LongAdder}, so concurrent writes to a popular category
+ * neither contend in memory nor lock its row. A periodic flush adds the
+ * pending deltas to the column and reloads it (picking up other instances'
+ * flushes); a slower reconciliation recounts {@code tb_product_category} and
+ * corrects any drift, e.g. from writes that bypass the service or deltas lost
+ * before a flush. Counts that change on reload are announced with a
+ * {@link CategoryCountsChangedEvent}.
+ */
+@Component
+public class CategoryProductCounts implements MeterBinder {
+
+	@Autowired
+	private CategoryRepository repository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher publisher;
+
+	private final Map<Long, AtomicLong> stored = new ConcurrentHashMap<>();
+	private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+	private final AtomicLong corrections = new AtomicLong();
+	private volatile boolean loaded;
+
+	public long get(Long categoryId) {
+		if (!loaded) {
+			reload();
+		}
+		AtomicLong count = stored.get(categoryId);
+		LongAdder delta = pending.get(categoryId);
+		return (count == null ? 0 : count.get()) + (delta == null ? 0 : delta.sum());
+	}
+
+	/** Applied when the current transaction commits, or immediately outside one. */
+	public void add(Long categoryId, long delta) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			pending.computeIfAbsent(categoryId, x -> new LongAdder()).add(delta);
+			return;
+		}
+		@SuppressWarnings("unchecked")
+		Map<Long, Long> deltas = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+		if (deltas == null) {
+			Map<Long, Long> bound = new HashMap<>();
+			TransactionSynchronizationManager.bindResource(this, bound);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					bound.forEach((id, x) -> pending.computeIfAbsent(id, y -> new LongAdder()).add(x));
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResource(CategoryProductCounts.this);
+				}
+			});
+			deltas = bound;
+		}
+		deltas.merge(categoryId, delta, Long::sum);
+	}
+
+	@Scheduled(fixedDelayString = "${app.category-counts.flush-interval:5000}")
+	public synchronized void flush() {
+		Map<Long, Long> deltas = new HashMap<>();
+		pending.forEach((id, adder) -> {
+			long delta = adder.sumThenReset();
+			if (delta != 0) {
+				deltas.put(id, delta);
+				stored.computeIfAbsent(id, x -> new AtomicLong()).addAndGet(delta);
+			}
+		});
+		try {
+			if (!deltas.isEmpty()) {
+				transactionTemplate.executeWithoutResult(status -> deltas.forEach(repository::addProductCount));
+			}
+		} catch (RuntimeException e) {
+			deltas.forEach((id, delta) -> {
+				stored.get(id).addAndGet(-delta);
+				pending.computeIfAbsent(id, x -> new LongAdder()).add(delta);
+			});
+			throw e;
+		}
+		reload();
+	}
+
+	/**
+	 * Sets every stored count to the real count minus the deltas still
+	 * pending, so the next flush lands on the real count. Runs at startup to
+	 * seed counts for rows loaded outside the service.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${app.category-counts.reconcile-interval:3600000}",
+			initialDelayString = "${app.category-counts.reconcile-interval:3600000}")
+	public synchronized void reconcile() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Map<Long, Long> actual = new HashMap<>();
+			repository.countProductsByCategory().forEach(x -> actual.put((Long) x[0], (Long) x[1]));
+			for (Object[] row : repository.findProductCounts()) {
+				Long id = (Long) row[0];
+				LongAdder delta = pending.get(id);
+				long expected = actual.getOrDefault(id, 0L) - (delta == null ? 0 : delta.sum());
+				long current = row[1] == null ? 0 : (Long) row[1];
+				if (current != expected) {
+					repository.setProductCount(id, expected);
+					corrections.addAndGet(Math.abs(expected - current));
+				}
+			}
+		});
+		reload();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		if (event.getOperation() == Operation.DELETE) {
+			event.getIds().forEach(id -> {
+				stored.remove(id);
+				pending.remove(id);
+			});
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("categories.product.counts.pending", pending,
+				x -> x.values().stream().mapToLong(LongAdder::sum).map(Math::abs).sum())
+				.description("Product count changes not yet flushed to the database").register(registry);
+		FunctionCounter.builder("categories.product.counts.corrections", corrections, AtomicLong::get)
+				.description("Total drift corrected by reconciliation").register(registry);
+	}
+
+	private synchronized void reload() {
+		List<Long> changed = new ArrayList<>();
+		for (Object[] row : repository.findProductCounts()) {
+			long count = row[1] == null ? 0 : (Long) row[1];
+			if (stored.computeIfAbsent((Long) row[0], x -> new AtomicLong()).getAndSet(count) != count) {
+				changed.add((Long) row[0]);
+			}
+		}
+		boolean initial = !loaded;
+		loaded = true;
+		if (!initial && !changed.isEmpty()) {
+			publisher.publishEvent(new CategoryCountsChangedEvent(changed));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.devsuperior.dscatalog.entities.Category;
+
+/**
+ * Immutable copy of the whole category table, held as {@link CachedCategory}
+ * values so callers cannot change what other requests read. Lookups by id are
+ * a binary search over a primitive id array; the rows are also kept pre-sorted
+ * by (name, id) so both sort keys page without sorting per request.
+ */
+public final class CategorySnapshot {
+
+	private static final Comparator<CachedCategory> BY_ID = Comparator.comparing(CachedCategory::getId);
+	private static final Comparator<CachedCategory> BY_NAME = Comparator
+			.comparing(CachedCategory::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparing(BY_ID);
+
+	private final long[] ids;
+	private final CachedCategory[] byId;
+	private final CachedCategory[] byName;
+
+	public CategorySnapshot(Collection<Category> categories) {
+		byId = categories.stream().map(CachedCategory::new).sorted(BY_ID).toArray(CachedCategory[]::new);
+		byName = Arrays.copyOf(byId, byId.length);
+		Arrays.sort(byName, BY_NAME);
+		ids = Arrays.stream(byId).mapToLong(CachedCategory::getId).toArray();
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public CachedCategory get(long id) {
+		int index = Arrays.binarySearch(ids, id);
+		return index >= 0 ? byId[index] : null;
+	}
+
+	/** Lowest-id category with exactly this name, or {@code null}. */
+	public CachedCategory findByName(String name) {
+		int index = Arrays.binarySearch(byName, new CachedCategory(Long.MIN_VALUE, name, null), BY_NAME);
+		int from = index >= 0 ? index : -index - 1;
+		return from < byName.length && Objects.equals(byName[from].getName(), name) ? byName[from] : null;
+	}
+
+	/**
+	 * Returns {@code null} when the requested sort is not on id or name, so the
+	 * caller can fall back to the database.
+	 */
+	public Page<CachedCategory> page(Pageable pageable) {
+		CachedCategory[] sorted = sorted(pageable.getSort());
+		if (sorted == null) {
+			return null;
+		}
+		if (pageable.isUnpaged()) {
+			return new PageImpl<>(Arrays.asList(sorted));
+		}
+		int from = (int) Math.min(pageable.getOffset(), sorted.length);
+		int to = Math.min(from + pageable.getPageSize(), sorted.length);
+		return new PageImpl<>(Arrays.asList(sorted).subList(from, to), pageable, sorted.length);
+	}
+
+	/**
+	 * Keyset continuation: up to {@code limit} rows strictly after
+	 * ({@code value}, {@code id}) in the given sort order.
+	 */
+	public List<CachedCategory> after(String sortKey, Long id, String value, int limit) {
+		CachedCategory[] sorted = "name".equals(sortKey) ? byName : byId;
+		Comparator<CachedCategory> comparator = "name".equals(sortKey) ? BY_NAME : BY_ID;
+		int from = 0;
+		if (id != null) {
+			int index = Arrays.binarySearch(sorted, new CachedCategory(id, value, null), comparator);
+			from = index >= 0 ? index + 1 : -index - 1;
+		}
+		int to = Math.min(from + limit, sorted.length);
+		return List.of(Arrays.copyOfRange(sorted, from, to));
+	}
+
+	private CachedCategory[] sorted(Sort sort) {
+		if (sort.isUnsorted()) {
+			return byId;
+		}
+		Comparator<CachedCategory> comparator = null;
+		for (Sort.Order order : sort) {
+			Comparator<CachedCategory> next;
+			if ("id".equals(order.getProperty())) {
+				next = BY_ID;
+			} else if ("name".equals(order.getProperty())) {
+				next = BY_NAME;
+			} else {
+				return null;
+			}
+			next = order.isAscending() ? next : next.reversed();
+			comparator = comparator == null ? next : comparator.thenComparing(next);
+		}
+		if (comparator == BY_ID) {
+			return byId;
+		}
+		if (comparator == BY_NAME) {
+			return byName;
+		}
+		CachedCategory[] sorted = Arrays.copyOf(byId, byId.length);
+		Arrays.sort(sorted, comparator);
+		return sorted;
+	}
+}
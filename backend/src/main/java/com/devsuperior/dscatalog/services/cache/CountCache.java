@@ -0,0 +1,81 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.entities.User;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.events.UserChangedEvent;
+
+/**
+ * Approximate row counts for the slice listings. A count is computed on first
+ * use, adjusted by committed inserts and deletes, and recomputed periodically
+ * to correct any drift.
+ */
+@Component
+public class CountCache {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final Map<Class<?>, AtomicLong> counts = new ConcurrentHashMap<>();
+
+	public long get(Class<?> entity) {
+		return counts.computeIfAbsent(entity, x -> new AtomicLong(count(x))).get();
+	}
+
+	@Scheduled(fixedDelayString = "${app.count-cache.refresh-interval:60000}")
+	public void refresh() {
+		counts.forEach((entity, value) -> value.set(count(entity)));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		adjust(Product.class, event);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		adjust(User.class, event);
+	}
+
+	private void adjust(Class<?> entity, EntityChangedEvent event) {
+		AtomicLong value = counts.get(entity);
+		if (value == null) {
+			return;
+		}
+		switch (event.getOperation()) {
+		case INSERT:
+			value.addAndGet(event.getIds().size());
+			break;
+		case DELETE:
+			value.updateAndGet(x -> Math.max(0, x - event.getIds().size()));
+			break;
+		default:
+			break;
+		}
+	}
+
+	private long count(Class<?> entity) {
+		if (entity == Product.class) {
+			return productRepository.count();
+		}
+		if (entity == User.class) {
+			return userRepository.count();
+		}
+		throw new IllegalArgumentException("No count source for " + entity.getSimpleName());
+	}
+}
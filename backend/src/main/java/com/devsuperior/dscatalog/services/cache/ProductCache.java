@@ -0,0 +1,64 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Size-bounded (W-TinyLFU) cache of the product detail DTO. Entries are evicted
+ * before the writing transaction commits and again after it, so a reader that
+ * loaded the old row in between cannot leave it cached. The DTOs embed
+ * category names, so any committed category write clears the whole cache.
+ */
+@Component
+public class ProductCache {
+
+	private final Cache<Long, ProductDTO> cache;
+
+	public ProductCache(@Value("${app.product-cache.maximum-size:10000}") long maximumSize,
+			@Value("${app.product-cache.expire-after-write:0s}") Duration expireAfterWrite) {
+		Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize).recordStats();
+		if (!expireAfterWrite.isZero()) {
+			builder.expireAfterWrite(expireAfterWrite);
+		}
+		cache = builder.build();
+	}
+
+	public ProductDTO get(Long id, Function<Long, ProductDTO> loader) {
+		return cache.get(id, loader);
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+	public void beforeProductCommit(ProductChangedEvent event) {
+		cache.invalidateAll(event.getIds());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void afterProductCommit(ProductChangedEvent event) {
+		cache.invalidateAll(event.getIds());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void afterCategoryCommit(CategoryChangedEvent event) {
+		cache.invalidateAll();
+	}
+}
@@ -0,0 +1,98 @@
+package com.devsuperior.dscatalog.services.concurrency;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Admits at most as many callers to {@link #getConnection()} as the pool has
+ * connections, in arrival order, and releases the permit when the connection
+ * is closed. With thousands of virtual threads the excess callers park on the
+ * semaphore instead of piling onto the pool, and give up after
+ * {@code timeout} with a {@link SQLTransientConnectionException}.
+ */
+public class ConnectionLimiter extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final Duration timeout;
+
+	public ConnectionLimiter(DataSource target, int permits, Duration timeout) {
+		super(target);
+		this.permits = new Semaphore(permits, true);
+		this.timeout = timeout;
+	}
+
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	public int getQueueLength() {
+		return permits.getQueueLength();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException("No database connection available within " + timeout);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+		}
+	}
+
+	private Connection limited(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(ConnectionLimiter.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+						try {
+							connection.close();
+						} finally {
+							permits.release();
+						}
+						return null;
+					}
+					if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+}
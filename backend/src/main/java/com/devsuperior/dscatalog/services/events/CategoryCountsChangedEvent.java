@@ -0,0 +1,15 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.Collection;
+
+/**
+ * Published when stored product counts change outside a product write: a
+ * reload picked up another instance's flush, or reconciliation corrected
+ * drift.
+ */
+public class CategoryCountsChangedEvent extends EntityChangedEvent {
+
+	public CategoryCountsChangedEvent(Collection<Long> ids) {
+		super(Operation.UPDATE, ids);
+	}
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the services after a write so in-memory structures derived from
+ * the database can follow it. Listeners use {@code @TransactionalEventListener}
+ * so they only see committed changes.
+ */
+public abstract class EntityChangedEvent {
+
+	public enum Operation {
+		INSERT, UPDATE, DELETE
+	}
+
+	private final Operation operation;
+	private final List<Long> ids;
+
+	protected EntityChangedEvent(Operation operation, Collection<Long> ids) {
+		this.operation = operation;
+		this.ids = List.copyOf(ids);
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	public List<Long> getIds() {
+		return ids;
+	}
+}
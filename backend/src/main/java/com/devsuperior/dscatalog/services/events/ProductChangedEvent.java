@@ -0,0 +1,15 @@
+package com.devsuperior.dscatalog.services.events;
+
+import java.util.Collection;
+import java.util.List;
+
+public class ProductChangedEvent extends EntityChangedEvent {
+
+	public ProductChangedEvent(Operation operation, Collection<Long> ids) {
+		super(operation, ids);
+	}
+
+	public ProductChangedEvent(Operation operation, Long id) {
+		super(operation, List.of(id));
+	}
+}
@@ -0,0 +1,9 @@
+package com.devsuperior.dscatalog.services.exceptions;
+
+public class TooManyRequestsException extends RuntimeException{
+	private static final long serialVersionUID = 1L;
+
+	public TooManyRequestsException(String msg) {
+		super(msg);
+	}
+}
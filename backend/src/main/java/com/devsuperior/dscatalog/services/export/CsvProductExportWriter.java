@@ -0,0 +1,66 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+public class CsvProductExportWriter implements ProductExportWriter {
+
+	private static final String HEADER = "id,name,description,price,imgUrl,date,categories";
+
+	private final Writer out;
+	private boolean headerWritten;
+
+	public CsvProductExportWriter(OutputStream out) {
+		this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void write(ProductDTO product) throws IOException {
+		if (!headerWritten) {
+			out.write(HEADER);
+			out.write('\n');
+			headerWritten = true;
+		}
+		out.write(String.valueOf(product.getId()));
+		out.write(',');
+		out.write(escape(product.getName()));
+		out.write(',');
+		out.write(escape(product.getDescription()));
+		out.write(',');
+		out.write(product.getPrice() == null ? "" : product.getPrice().toString());
+		out.write(',');
+		out.write(escape(product.getImgUrl()));
+		out.write(',');
+		out.write(product.getDate() == null ? "" : product.getDate().toString());
+		out.write(',');
+		out.write(escape(product.getCategories().stream().map(CategoryDTO::getName).collect(Collectors.joining("|"))));
+		out.write('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!headerWritten) {
+			out.write(HEADER);
+			out.write('\n');
+		}
+		out.flush();
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,122 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.cache.CachedCategory;
+import com.devsuperior.dscatalog.services.cache.CategorySnapshot;
+
+/**
+ * Reads the layout written by {@link CsvProductExportWriter}: a header line,
+ * then one record per product with category names separated by {@code |}.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvProductImportReader implements ProductImportReader {
+
+	private static final int COLUMNS = 7;
+
+	private final BufferedReader in;
+	private final CategorySnapshot categories;
+	private long line;
+
+	public CsvProductImportReader(InputStream in, CategorySnapshot categories) {
+		this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		this.categories = categories;
+	}
+
+	@Override
+	public ProductDTO read() throws IOException {
+		if (line == 0 && readRecord() == null) {
+			return null;
+		}
+		List<String> fields = readRecord();
+		while (fields != null && fields.size() == 1 && fields.get(0).isEmpty()) {
+			fields = readRecord();
+		}
+		if (fields == null) {
+			return null;
+		}
+		if (fields.size() != COLUMNS) {
+			throw new IOException("Invalid CSV record at line " + line + ": expected " + COLUMNS + " columns");
+		}
+		try {
+			ProductDTO dto = new ProductDTO(null, blankToNull(fields.get(1)), blankToNull(fields.get(2)),
+					fields.get(3).isEmpty() ? null : Double.valueOf(fields.get(3)), blankToNull(fields.get(4)),
+					fields.get(5).isEmpty() ? null : Instant.parse(fields.get(5)));
+			if (!fields.get(6).isEmpty()) {
+				for (String name : fields.get(6).split("\\|")) {
+					CachedCategory category = categories.findByName(name);
+					dto.getCategories().add(category != null ? new CategoryDTO(category.getId(), category.getName()) : new CategoryDTO(null, name));
+				}
+			}
+			return dto;
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new IOException("Invalid CSV record at line " + line + ": " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private List<String> readRecord() throws IOException {
+		String text = in.readLine();
+		if (text == null) {
+			return null;
+		}
+		line++;
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (true) {
+			if (i == text.length()) {
+				if (!quoted) {
+					break;
+				}
+				text = in.readLine();
+				if (text == null) {
+					throw new IOException("Unterminated quoted field at line " + line);
+				}
+				line++;
+				field.append('\n');
+				i = 0;
+				continue;
+			}
+			char c = text.charAt(i++);
+			if (quoted) {
+				if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static String blankToNull(String value) {
+		return value.isEmpty() ? null : value;
+	}
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.devsuperior.dscatalog.services.cache.CategorySnapshot;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public enum ExportFormat {
+
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+
+	private final String contentType;
+	private final String extension;
+
+	private ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public ProductExportWriter writer(OutputStream out, ObjectMapper objectMapper) {
+		if (this == CSV) {
+			return new CsvProductExportWriter(out);
+		}
+		return new NdjsonProductExportWriter(out, objectMapper);
+	}
+
+	public ProductImportReader reader(InputStream in, ObjectMapper objectMapper, CategorySnapshot categories) {
+		if (this == CSV) {
+			return new CsvProductImportReader(in, categories);
+		}
+		return new NdjsonProductImportReader(in, objectMapper);
+	}
+
+	public static ExportFormat of(String format) {
+		for (ExportFormat value : values()) {
+			if (value.extension.equalsIgnoreCase(format)) {
+				return value;
+			}
+		}
+		throw new BadRequestException("Unsupported export format: " + format);
+	}
+}
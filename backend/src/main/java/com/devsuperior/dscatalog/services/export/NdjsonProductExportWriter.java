@@ -0,0 +1,38 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+public class NdjsonProductExportWriter implements ProductExportWriter {
+
+	private final JsonGenerator generator;
+	private final ObjectWriter writer;
+
+	public NdjsonProductExportWriter(OutputStream out, ObjectMapper objectMapper) {
+		try {
+			generator = objectMapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		writer = objectMapper.writerFor(ProductDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	@Override
+	public void write(ProductDTO product) throws IOException {
+		writer.writeValue(generator, product);
+		generator.writeRaw('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class NdjsonProductImportReader implements ProductImportReader {
+
+	private final MappingIterator<ProductDTO> values;
+
+	public NdjsonProductImportReader(InputStream in, ObjectMapper objectMapper) {
+		try {
+			values = objectMapper.readerFor(ProductDTO.class).readValues(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public ProductDTO read() throws IOException {
+		return values.hasNextValue() ? values.nextValue() : null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		values.close();
+	}
+}
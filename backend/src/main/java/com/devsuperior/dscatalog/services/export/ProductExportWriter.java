@@ -0,0 +1,15 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+/**
+ * Writes exported products one at a time to an output stream. Closing the
+ * writer flushes it but leaves the underlying stream open.
+ */
+public interface ProductExportWriter extends Closeable {
+
+	void write(ProductDTO product) throws IOException;
+}
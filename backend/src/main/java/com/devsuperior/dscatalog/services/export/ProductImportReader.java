@@ -0,0 +1,16 @@
+package com.devsuperior.dscatalog.services.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+/**
+ * Parses products one record at a time from an input stream, so a feed of
+ * any size is never held in memory.
+ */
+public interface ProductImportReader extends Closeable {
+
+	/** Next product, or {@code null} at the end of the input. */
+	ProductDTO read() throws IOException;
+}
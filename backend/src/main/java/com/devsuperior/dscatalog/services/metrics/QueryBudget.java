@@ -0,0 +1,20 @@
+package com.devsuperior.dscatalog.services.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a controller or service method may execute,
+ * including the flush on commit and the after-commit listeners it triggers.
+ * Enforced by {@link QueryBudgetAspect}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+	int value();
+}
@@ -0,0 +1,60 @@
+package com.devsuperior.dscatalog.services.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscatalog.services.exceptions.QueryBudgetExceededException;
+
+/**
+ * Counts the statements executed by each {@link QueryBudget} method on the
+ * current thread's {@link SqlStatistics} counter (starting one outside of a
+ * request) and reports methods that go over budget: a warning by default, a
+ * {@link QueryBudgetExceededException} when {@code app.query-budget.strict}
+ * is set, as it is for the test suites. Ordered outside the transaction advice
+ * so the flush on commit is counted too.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class QueryBudgetAspect {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryBudgetAspect.class);
+
+	@Value("${app.query-budget.strict:false}")
+	private boolean strict;
+
+	@Around("@annotation(budget)")
+	public Object enforce(ProceedingJoinPoint joinPoint, QueryBudget budget) throws Throwable {
+		boolean owner = SqlStatistics.current() == null;
+		if (owner) {
+			SqlStatistics.start();
+		}
+		SqlStatistics.Counter counter = SqlStatistics.current();
+		int before = counter.getStatements();
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		} finally {
+			if (owner) {
+				SqlStatistics.stop();
+			}
+		}
+		int executed = counter.getStatements() - before;
+		if (executed > budget.value()) {
+			String msg = joinPoint.getSignature().toShortString() + " executed " + executed
+					+ " SQL statements, over its budget of " + budget.value();
+			if (strict) {
+				throw new QueryBudgetExceededException(msg);
+			}
+			logger.warn(msg);
+		}
+		return result;
+	}
+}
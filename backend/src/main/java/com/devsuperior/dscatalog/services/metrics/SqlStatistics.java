@@ -0,0 +1,63 @@
+package com.devsuperior.dscatalog.services.metrics;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Per-thread count and JDBC time of the statements executed through the
+ * proxied data source. Only threads between {@link #start()} and
+ * {@link #stop()} (request threads) are tracked; a batch counts as one
+ * statement execution.
+ */
+public class SqlStatistics implements QueryExecutionListener {
+
+	private static final ThreadLocal<Counter> CURRENT = new ThreadLocal<>();
+
+	public static void start() {
+		CURRENT.set(new Counter());
+	}
+
+	public static Counter current() {
+		return CURRENT.get();
+	}
+
+	public static Counter stop() {
+		Counter counter = CURRENT.get();
+		CURRENT.remove();
+		return counter;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Counter counter = CURRENT.get();
+		if (counter != null) {
+			counter.started = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Counter counter = CURRENT.get();
+		if (counter != null) {
+			counter.statements++;
+			counter.nanos += System.nanoTime() - counter.started;
+		}
+	}
+
+	public static final class Counter {
+		private int statements;
+		private long nanos;
+		private long started;
+
+		public int getStatements() {
+			return statements;
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.devsuperior.dscatalog.services.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+/**
+ * Opaque position of the last row of a keyset page: the sort key, its value
+ * and the row id used as tie-breaker. Encoded as URL-safe Base64 so clients
+ * only pass it back in {@code ?after=}.
+ */
+public class KeysetCursor {
+
+	public static final String SORT_ID = "id";
+	public static final String SORT_NAME = "name";
+
+	public static final int MAX_SIZE = 2000;
+
+	private static final Set<String> SORT_KEYS = Set.of(SORT_ID, SORT_NAME);
+	private static final String SEPARATOR = ":";
+
+	private final String sort;
+	private final Long id;
+	private final String value;
+
+	public KeysetCursor(String sort, Long id, String value) {
+		this.sort = sort;
+		this.id = id;
+		this.value = value;
+	}
+
+	public String getSort() {
+		return sort;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public String encode() {
+		String raw = sort + SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static KeysetCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(SEPARATOR, 3);
+			if (parts.length != 3 || !SORT_KEYS.contains(parts[0])) {
+				throw new BadRequestException("Invalid cursor");
+			}
+			return new KeysetCursor(parts[0], Long.valueOf(parts[1]), parts[2]);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+
+	public static String sortKey(String sort) {
+		String key = sort.split(",")[0].trim();
+		if (!SORT_KEYS.contains(key) || sort.toLowerCase().endsWith(",desc")) {
+			throw new BadRequestException("Cursor pagination supports only sort=id or sort=name (ascending)");
+		}
+		return key;
+	}
+
+	public static void validateSize(int size) {
+		if (size < 1 || size > MAX_SIZE) {
+			throw new BadRequestException("Size must be between 1 and " + MAX_SIZE);
+		}
+	}
+}
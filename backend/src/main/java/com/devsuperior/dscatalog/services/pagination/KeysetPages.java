@@ -0,0 +1,43 @@
+package com.devsuperior.dscatalog.services.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+
+/**
+ * The steps every keyset listing shares: validate the size, decode the cursor
+ * (or take the sort key from {@code sort} on the first page), fetch one row
+ * more than the size to learn whether another page follows, and encode the
+ * cursor of the last row returned. Only the fetch differs per entity.
+ */
+public final class KeysetPages {
+
+	@FunctionalInterface
+	public interface Fetcher<T> {
+
+		/** Up to {@code limit} rows after {@code cursor} (from the start when null), ordered by the sort key and id. */
+		List<T> fetch(String sortKey, KeysetCursor cursor, int limit);
+	}
+
+	private KeysetPages() {
+	}
+
+	public static <T, R> CursorPageDTO<R> find(String after, int size, String sort, Fetcher<T> fetcher,
+			Function<T, Long> id, Function<T, String> name, Function<T, R> mapper) {
+		KeysetCursor.validateSize(size);
+		KeysetCursor cursor = KeysetCursor.decode(after);
+		String sortKey = cursor != null ? cursor.getSort() : KeysetCursor.sortKey(sort);
+
+		List<T> list = fetcher.fetch(sortKey, cursor, size + 1);
+		String next = null;
+		if (list.size() > size) {
+			list = list.subList(0, size);
+			T last = list.get(size - 1);
+			next = new KeysetCursor(sortKey, id.apply(last),
+					KeysetCursor.SORT_NAME.equals(sortKey) ? name.apply(last) : null).encode();
+		}
+		return new CursorPageDTO<>(list.stream().map(mapper).collect(Collectors.toList()), size, next);
+	}
+}
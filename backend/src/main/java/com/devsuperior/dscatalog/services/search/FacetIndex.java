@@ -0,0 +1,209 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Compressed bitmaps over product ordinals: one per category and one per price
+ * bucket. Product ids are mapped to dense ordinals in the order they are first
+ * put, so ids of any size fit and the bitmaps stay compact; ordinals of removed
+ * ids are not reused until the index is rebuilt. Filters are bitmap
+ * unions/intersections; facet counts are intersection cardinalities, computed
+ * disjunctively (category counts ignore the category filter, price counts
+ * ignore the price filter) so every option shows how many results selecting it
+ * would give.
+ */
+public class FacetIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final double[] bounds;
+	private final RoaringBitmap[] buckets;
+	private final RoaringBitmap all = new RoaringBitmap();
+	private final Map<Long, RoaringBitmap> categories = new TreeMap<>();
+	private final Map<Long, Integer> ordinals = new HashMap<>();
+	private long[] ids = new long[1024];
+	private int size;
+	private double[] prices = new double[1024];
+
+	/**
+	 * @param bounds ascending lower bounds of the price buckets; the first
+	 *               bucket also takes prices below its bound and the last bucket
+	 *               is open-ended
+	 */
+	public FacetIndex(double[] bounds) {
+		this.bounds = bounds.clone();
+		Arrays.sort(this.bounds);
+		buckets = new RoaringBitmap[bounds.length];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new RoaringBitmap();
+		}
+	}
+
+	public void put(long id, Double price, Collection<Long> categoryIds) {
+		lock.writeLock().lock();
+		try {
+			int ordinal = ordinalOf(id);
+			delete(ordinal);
+			all.add(ordinal);
+			for (Long categoryId : categoryIds) {
+				categories.computeIfAbsent(categoryId, x -> new RoaringBitmap()).add(ordinal);
+			}
+			if (price != null) {
+				prices[ordinal] = price;
+				buckets[bucketOf(price)].add(ordinal);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			Integer ordinal = ordinals.remove(id);
+			if (ordinal != null) {
+				delete(ordinal);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public Result query(Collection<Long> categoryIds, Double minPrice, Double maxPrice) {
+		lock.readLock().lock();
+		try {
+			RoaringBitmap byCategory = all;
+			if (categoryIds != null && !categoryIds.isEmpty()) {
+				byCategory = new RoaringBitmap();
+				for (Long categoryId : categoryIds) {
+					RoaringBitmap members = categories.get(categoryId);
+					if (members != null) {
+						byCategory.or(members);
+					}
+				}
+			}
+			RoaringBitmap byPrice = minPrice == null && maxPrice == null ? all : priceRange(minPrice, maxPrice);
+			RoaringBitmap matches = RoaringBitmap.and(byCategory, byPrice);
+
+			Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+			categories.forEach((id, members) -> categoryCounts.put(id, RoaringBitmap.andCardinality(byPrice, members)));
+			int[] bucketCounts = new int[buckets.length];
+			for (int i = 0; i < buckets.length; i++) {
+				bucketCounts[i] = RoaringBitmap.andCardinality(byCategory, buckets[i]);
+			}
+			return new Result(matches, ids, categoryCounts, bounds.clone(), bucketCounts);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private RoaringBitmap priceRange(Double min, Double max) {
+		RoaringBitmap result = new RoaringBitmap();
+		for (int i = 0; i < buckets.length; i++) {
+			double low = i > 0 ? bounds[i] : Double.NEGATIVE_INFINITY;
+			double high = i + 1 < bounds.length ? bounds[i + 1] : Double.POSITIVE_INFINITY;
+			boolean overlaps = (max == null || low <= max) && (min == null || high > min);
+			boolean contained = (min == null || low >= min) && (max == null || high <= max);
+			if (contained) {
+				result.or(buckets[i]);
+			} else if (overlaps) {
+				IntIterator it = buckets[i].getIntIterator();
+				while (it.hasNext()) {
+					int ordinal = it.next();
+					double price = prices[ordinal];
+					if ((min == null || price >= min) && (max == null || price <= max)) {
+						result.add(ordinal);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private int bucketOf(double price) {
+		int index = Arrays.binarySearch(bounds, price);
+		return Math.max(index >= 0 ? index : -index - 2, 0);
+	}
+
+	private int ordinalOf(long id) {
+		Integer ordinal = ordinals.get(id);
+		if (ordinal != null) {
+			return ordinal;
+		}
+		int next = size++;
+		if (next == ids.length) {
+			ids = Arrays.copyOf(ids, ids.length * 2);
+			prices = Arrays.copyOf(prices, prices.length * 2);
+		}
+		ids[next] = id;
+		ordinals.put(id, next);
+		return next;
+	}
+
+	private void delete(int ordinal) {
+		if (!all.checkedRemove(ordinal)) {
+			return;
+		}
+		categories.values().forEach(x -> x.remove(ordinal));
+		for (RoaringBitmap bucket : buckets) {
+			bucket.remove(ordinal);
+		}
+	}
+
+	public static final class Result {
+		private final RoaringBitmap matches;
+		private final long[] ids;
+		private final Map<Long, Integer> categoryCounts;
+		private final double[] bounds;
+		private final int[] bucketCounts;
+
+		public Result(RoaringBitmap matches, long[] ids, Map<Long, Integer> categoryCounts, double[] bounds, int[] bucketCounts) {
+			this.matches = matches;
+			this.ids = ids;
+			this.categoryCounts = categoryCounts;
+			this.bounds = bounds;
+			this.bucketCounts = bucketCounts;
+		}
+
+		public int getTotal() {
+			return matches.getCardinality();
+		}
+
+		/** Ids of the matching products in the order they were first put, skipping {@code offset}. */
+		public long[] page(long offset, int size) {
+			if (offset >= matches.getCardinality()) {
+				return new long[0];
+			}
+			long[] page = new long[(int) Math.min(size, matches.getCardinality() - offset)];
+			PeekableIntIterator it = matches.getIntIterator();
+			it.advanceIfNeeded(matches.select((int) offset));
+			for (int i = 0; i < page.length; i++) {
+				page[i] = ids[it.next()];
+			}
+			return page;
+		}
+
+		public Map<Long, Integer> getCategoryCounts() {
+			return categoryCounts;
+		}
+
+		public double[] getBounds() {
+			return bounds;
+		}
+
+		public int[] getBucketCounts() {
+			return bucketCounts;
+		}
+	}
+}
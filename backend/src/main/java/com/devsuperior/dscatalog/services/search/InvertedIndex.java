@@ -0,0 +1,264 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranked with Okapi BM25.
+ *
+ * Every indexed document gets an int ordinal; postings are parallel primitive
+ * arrays of (ordinal, term frequency) kept in ordinal order, so a query is a
+ * doc-at-a-time merge of its terms' postings with a bounded top-k heap.
+ * Updates append a new ordinal and tombstone the old one; tombstones are
+ * purged (and ordinals renumbered) once they reach a quarter of the live docs.
+ */
+public class InvertedIndex {
+
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+	private static final int MIN_COMPACTION = 1024;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Postings> postings = new HashMap<>();
+	private final Map<Long, Integer> ordinals = new HashMap<>();
+	private final BitSet deleted = new BitSet();
+	private long[] docIds = new long[MIN_COMPACTION];
+	private int[] docLengths = new int[MIN_COMPACTION];
+	private int docCount;
+	private int liveDocs;
+	private long totalLength;
+
+	public void put(long id, String... fields) {
+		Map<String, Integer> frequencies = new HashMap<>();
+		int length = 0;
+		for (String field : fields) {
+			for (String term : TextAnalyzer.tokenize(field)) {
+				frequencies.merge(term, 1, Integer::sum);
+				length++;
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			delete(id);
+			int ordinal = docCount++;
+			if (ordinal == docIds.length) {
+				docIds = Arrays.copyOf(docIds, ordinal * 2);
+				docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+			}
+			docIds[ordinal] = id;
+			docLengths[ordinal] = length;
+			for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+				postings.computeIfAbsent(entry.getKey(), x -> new Postings()).add(ordinal, entry.getValue());
+			}
+			ordinals.put(id, ordinal);
+			liveDocs++;
+			totalLength += length;
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			delete(id);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			ordinals.clear();
+			deleted.clear();
+			docCount = 0;
+			liveDocs = 0;
+			totalLength = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return liveDocs;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public SearchResult search(String query, int limit) {
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+		lock.readLock().lock();
+		try {
+			List<Postings> matched = new ArrayList<>();
+			List<Float> idfs = new ArrayList<>();
+			for (String term : terms) {
+				Postings list = postings.get(term);
+				if (list != null) {
+					matched.add(list);
+					idfs.add((float) Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5)));
+				}
+			}
+			if (matched.isEmpty() || limit <= 0) {
+				return new SearchResult(new long[0], new float[0], 0);
+			}
+
+			float averageLength = (float) totalLength / Math.max(1, liveDocs);
+			int[] cursors = new int[matched.size()];
+			PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+			int totalHits = 0;
+			while (true) {
+				int doc = Integer.MAX_VALUE;
+				for (int i = 0; i < cursors.length; i++) {
+					Postings list = matched.get(i);
+					if (cursors[i] < list.size) {
+						doc = Math.min(doc, list.docs[cursors[i]]);
+					}
+				}
+				if (doc == Integer.MAX_VALUE) {
+					break;
+				}
+				float score = 0;
+				for (int i = 0; i < cursors.length; i++) {
+					Postings list = matched.get(i);
+					if (cursors[i] < list.size && list.docs[cursors[i]] == doc) {
+						int tf = list.freqs[cursors[i]++];
+						float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+						score += idfs.get(i) * tf * (K1 + 1) / (tf + norm);
+					}
+				}
+				if (deleted.get(doc)) {
+					continue;
+				}
+				totalHits++;
+				if (top.size() == limit) {
+					long[] worst = top.peek();
+					float worstScore = Float.intBitsToFloat((int) worst[0]);
+					if (score < worstScore || (score == worstScore && docIds[doc] > worst[1])) {
+						continue;
+					}
+					top.poll();
+				}
+				top.offer(new long[] { Float.floatToIntBits(score), docIds[doc] });
+			}
+
+			long[][] ranked = top.toArray(new long[0][]);
+			Arrays.sort(ranked, RANKING);
+			long[] ids = new long[ranked.length];
+			float[] scores = new float[ranked.length];
+			for (int i = 0; i < ranked.length; i++) {
+				scores[i] = Float.intBitsToFloat((int) ranked[i][0]);
+				ids[i] = ranked[i][1];
+			}
+			return new SearchResult(ids, scores, totalHits);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Best first: higher score, then lower id. Entries are {scoreBits, id}. */
+	private static final Comparator<long[]> RANKING = Comparator
+			.<long[]>comparingDouble(x -> -Float.intBitsToFloat((int) x[0]))
+			.thenComparingLong(x -> x[1]);
+
+	private void delete(long id) {
+		Integer ordinal = ordinals.remove(id);
+		if (ordinal != null) {
+			deleted.set(ordinal);
+			liveDocs--;
+			totalLength -= docLengths[ordinal];
+		}
+	}
+
+	private void compactIfNeeded() {
+		int tombstones = docCount - liveDocs;
+		if (tombstones < MIN_COMPACTION || tombstones < liveDocs / 4) {
+			return;
+		}
+		int[] renumbered = new int[docCount];
+		int next = 0;
+		for (int ordinal = 0; ordinal < docCount; ordinal++) {
+			if (!deleted.get(ordinal)) {
+				renumbered[ordinal] = next;
+				docIds[next] = docIds[ordinal];
+				docLengths[next] = docLengths[ordinal];
+				ordinals.put(docIds[next], next);
+				next++;
+			}
+		}
+		for (Iterator<Postings> it = postings.values().iterator(); it.hasNext();) {
+			Postings list = it.next();
+			int size = 0;
+			for (int i = 0; i < list.size; i++) {
+				if (!deleted.get(list.docs[i])) {
+					list.docs[size] = renumbered[list.docs[i]];
+					list.freqs[size] = list.freqs[i];
+					size++;
+				}
+			}
+			list.size = size;
+			if (size == 0) {
+				it.remove();
+			}
+		}
+		deleted.clear();
+		docCount = next;
+	}
+
+	private static final class Postings {
+		private int[] docs = new int[4];
+		private int[] freqs = new int[4];
+		private int size;
+
+		private void add(int doc, int freq) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				freqs = Arrays.copyOf(freqs, size * 2);
+			}
+			docs[size] = doc;
+			freqs[size] = freq;
+			size++;
+		}
+	}
+
+	public static final class SearchResult {
+		private final long[] ids;
+		private final float[] scores;
+		private final int totalHits;
+
+		public SearchResult(long[] ids, float[] scores, int totalHits) {
+			this.ids = ids;
+			this.scores = scores;
+			this.totalHits = totalHits;
+		}
+
+		public long[] getIds() {
+			return ids;
+		}
+
+		public float[] getScores() {
+			return scores;
+		}
+
+		public int getTotalHits() {
+			return totalHits;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.search.FacetIndex.Result;
+
+/**
+ * Category and price bitmaps over all products. Built at startup from tb_product and tb_product_category in
+ * id batches and updated incrementally from committed product changes.
+ */
+@Component
+public class ProductFacetIndex {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final double[] priceBuckets;
+
+	private volatile FacetIndex index;
+
+	public ProductFacetIndex(@Value("${app.facets.price-buckets:0,100,500,1000,2000,5000}") double[] priceBuckets) {
+		this.priceBuckets = priceBuckets;
+		this.index = new FacetIndex(priceBuckets);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		FacetIndex fresh = new FacetIndex(priceBuckets);
+		List<Object[]> batch = repository.findPricesAfter(0L, PageRequest.of(0, BATCH_SIZE));
+		while (!batch.isEmpty()) {
+			load(fresh, batch);
+			batch = repository.findPricesAfter((Long) batch.get(batch.size() - 1)[0], PageRequest.of(0, BATCH_SIZE));
+		}
+		index = fresh;
+	}
+
+	public Result query(Collection<Long> categoryIds, Double minPrice, Double maxPrice) {
+		return index.query(categoryIds, minPrice, maxPrice);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.getOperation() == Operation.DELETE) {
+			event.getIds().forEach(x -> index.remove(x));
+			return;
+		}
+		load(index, repository.findPricesByIdIn(event.getIds()));
+	}
+
+	private void load(FacetIndex target, List<Object[]> prices) {
+		List<Long> ids = prices.stream().map(x -> (Long) x[0]).collect(Collectors.toList());
+		Map<Long, List<Long>> memberships = repository.findCategoryIdsByProductIdIn(ids).stream()
+				.collect(Collectors.groupingBy(x -> (Long) x[0], Collectors.mapping(x -> (Long) x[1], Collectors.toList())));
+		for (Object[] row : prices) {
+			Long id = (Long) row[0];
+			target.put(id, (Double) row[1], memberships.getOrDefault(id, List.of()));
+		}
+	}
+}
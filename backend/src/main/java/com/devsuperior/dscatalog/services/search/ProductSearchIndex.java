@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.EntityChangedEvent.Operation;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.search.InvertedIndex.SearchResult;
+
+/**
+ * Full-text index over product name and description. Built at startup by
+ * walking the table in id order and kept current from committed product
+ * changes.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private volatile InvertedIndex index = new InvertedIndex();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		InvertedIndex fresh = new InvertedIndex();
+		List<Product> batch = repository.findAllBy(PageRequest.of(0, BATCH_SIZE, Sort.by("id")));
+		while (!batch.isEmpty()) {
+			batch.forEach(x -> fresh.put(x.getId(), x.getName(), x.getDescription()));
+			batch = repository.findNextById(batch.get(batch.size() - 1).getId(), PageRequest.of(0, BATCH_SIZE));
+		}
+		index = fresh;
+	}
+
+	public SearchResult search(String query, int limit) {
+		return index.search(query, limit);
+	}
+
+	public int size() {
+		return index.size();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.getOperation() == Operation.DELETE) {
+			event.getIds().forEach(index::remove);
+			return;
+		}
+		repository.findAllById(event.getIds()).forEach(x -> index.put(x.getId(), x.getName(), x.getDescription()));
+	}
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into search terms: accents are stripped ("Eletrônicos" and
+ * "eletronicos" match), case is folded and common Portuguese stop words are
+ * dropped.
+ */
+public final class TextAnalyzer {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+	private static final Set<String> STOP_WORDS = Set.of("a", "o", "as", "os", "e", "de", "da", "do", "das", "dos",
+			"em", "no", "na", "nos", "nas", "um", "uma", "para", "por", "com", "sem");
+
+	private TextAnalyzer() {
+	}
+
+	public static String normalize(String text) {
+		return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	public static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		for (String token : SEPARATORS.split(normalize(text))) {
+			if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+				terms.add(token);
+			}
+		}
+		return terms;
+	}
+}
@@ -0,0 +1,122 @@
+package com.devsuperior.dscatalog.services.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.devsuperior.dscatalog.services.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs BCrypt on its own pool (one thread per core by default) with a bounded
+ * queue, so a burst of signups queues here instead of holding request threads
+ * on the CPU. When the queue is full the caller fails at once with
+ * {@link TooManyRequestsException}.
+ */
+@Component
+public class PasswordHasher implements MeterBinder {
+
+	@Autowired
+	private BCryptPasswordEncoder passwordEncoder;
+
+	@Value("${app.password-hashing.threads:0}")
+	private int threads;
+
+	@Value("${app.password-hashing.queue-capacity:64}")
+	private int queueCapacity;
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	public void start() {
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("bcrypt-"));
+	}
+
+	@PreDestroy
+	public void stop() {
+		executor.shutdown();
+	}
+
+	public String encode(CharSequence rawPassword) {
+		return await(submit(() -> passwordEncoder.encode(rawPassword)));
+	}
+
+	/** One task per pool thread, each hashing a contiguous slice; hashes keep the input order. */
+	public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+		int slices = Math.min(executor.getMaximumPoolSize(), rawPasswords.size());
+		List<Future<List<String>>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < slices; i++) {
+				List<? extends CharSequence> slice = rawPasswords.subList(i * rawPasswords.size() / slices,
+						(i + 1) * rawPasswords.size() / slices);
+				futures.add(submit(() -> slice.stream().map(passwordEncoder::encode).collect(Collectors.toList())));
+			}
+		} catch (TooManyRequestsException e) {
+			futures.forEach(x -> x.cancel(true));
+			throw e;
+		}
+		List<String> hashes = new ArrayList<>(rawPasswords.size());
+		for (Future<List<String>> future : futures) {
+			hashes.addAll(await(future));
+		}
+		return hashes;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(registry);
+		FunctionCounter.builder("password.hashing.rejected", rejected, AtomicLong::get)
+				.description("Password hashing requests rejected because the queue was full")
+				.register(registry);
+	}
+
+	private <T> Future<T> submit(Callable<T> task) {
+		try {
+			return executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			throw new TooManyRequestsException("Too many password operations in progress, try again later");
+		}
+	}
+
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while hashing a password", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
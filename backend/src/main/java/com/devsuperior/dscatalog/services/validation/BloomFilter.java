@@ -0,0 +1,99 @@
+package com.devsuperior.dscatalog.services.validation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, safe for concurrent puts and lookups
+ * without locking: bits are set with a CAS on the containing word. Sized from
+ * the expected number of entries and the target false-positive rate (capped
+ * at 2^31 bits, 256 MB); the k probe positions come from double hashing one
+ * 64-bit hash.
+ */
+public class BloomFilter {
+
+	private static final double LN2 = Math.log(2);
+	private static final int MAX_WORDS = 1 << 25;
+
+	private final AtomicLongArray words;
+	private final long bitSize;
+	private final int hashCount;
+
+	public BloomFilter(long expectedEntries, double falsePositiveRate) {
+		if (expectedEntries < 1) {
+			throw new IllegalArgumentException("Expected entries must be positive");
+		}
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+		}
+		long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (LN2 * LN2));
+		int words = (int) Math.max(1, Math.min(MAX_WORDS, (bits + 63) / 64));
+		this.words = new AtomicLongArray(words);
+		this.bitSize = words * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedEntries * LN2));
+	}
+
+	public void put(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = index(h1 + i * h2);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = words.get(word);
+			while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+				current = words.get(word);
+			}
+		}
+	}
+
+	/** {@code false} means the value was never put; {@code true} means it probably was. */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long bit = index(h1 + i * h2);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long bitSize() {
+		return bitSize;
+	}
+
+	public int hashCount() {
+		return hashCount;
+	}
+
+	/** False-positive rate implied by the bits set so far: (set bits / size)^k. */
+	public double expectedFalsePositiveRate() {
+		long set = 0;
+		for (int i = 0; i < words.length(); i++) {
+			set += Long.bitCount(words.get(i));
+		}
+		return Math.pow((double) set / bitSize, hashCount);
+	}
+
+	private long index(int combined) {
+		return (combined & 0x7fffffffL) % bitSize;
+	}
+
+	/** FNV-1a over the chars, finished with the MurmurHash3 64-bit mixer. */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
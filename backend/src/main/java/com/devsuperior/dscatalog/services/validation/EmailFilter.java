@@ -0,0 +1,154 @@
+package com.devsuperior.dscatalog.services.validation;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Bloom filter of the emails in {@code tb_user}, so the uniqueness check only
+ * queries the table for emails that may already exist. Loaded at startup;
+ * until then every email is a possible hit.
+ *
+ * {@link #put} is called before an email is written and again after the
+ * transaction commits, so neither a concurrent validation nor a rebuild that
+ * scanned the table before the commit can miss it. Bits are never cleared:
+ * deletes and email changes leave stale entries behind (a removed email keeps
+ * answering "might contain" until the next rebuild). The filter is rebuilt,
+ * sized for twice the current users, once the false-positive rate implied by
+ * its set bits exceeds the target or the stale entries outnumber a quarter of
+ * the emails it was loaded with.
+ */
+@Component
+public class EmailFilter implements MeterBinder {
+
+	private static final int BATCH_SIZE = 1000;
+	private static final long MIN_STALE_FOR_REBUILD = 1000;
+
+	@Autowired
+	private UserRepository repository;
+
+	@Value("${app.email-filter.expected-entries:100000}")
+	private long expectedEntries;
+
+	@Value("${app.email-filter.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	private volatile BloomFilter filter;
+	private volatile BloomFilter pending;
+	private volatile long loadedEntries;
+
+	private final AtomicLong stale = new AtomicLong();
+	private final AtomicLong negatives = new AtomicLong();
+	private final AtomicLong positives = new AtomicLong();
+	private final AtomicLong falsePositives = new AtomicLong();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		long users = repository.count();
+		long size = Math.max(expectedEntries, 2 * users);
+		BloomFilter fresh = new BloomFilter(size, falsePositiveRate);
+		pending = fresh;
+		List<Object[]> batch = repository.findEmailsAfter(0L, PageRequest.of(0, BATCH_SIZE));
+		while (!batch.isEmpty()) {
+			batch.forEach(x -> fresh.put((String) x[1]));
+			batch = repository.findEmailsAfter((Long) batch.get(batch.size() - 1)[0], PageRequest.of(0, BATCH_SIZE));
+		}
+		stale.set(0);
+		loadedEntries = users;
+		filter = fresh;
+		pending = null;
+	}
+
+	@Scheduled(fixedDelayString = "${app.email-filter.check-interval:60000}")
+	public void rebuildIfDegraded() {
+		BloomFilter current = filter;
+		if (current != null && (current.expectedFalsePositiveRate() > falsePositiveRate
+				|| stale.get() > Math.max(MIN_STALE_FOR_REBUILD, loadedEntries / 4))) {
+			rebuild();
+		}
+	}
+
+	/** {@code false} only when no user has this email. */
+	public boolean mightContain(String email) {
+		BloomFilter current = filter;
+		boolean hit = email == null || current == null || current.mightContain(email);
+		(hit ? positives : negatives).incrementAndGet();
+		return hit;
+	}
+
+	/** Records that a lookup this filter let through found no user. */
+	public void falsePositive() {
+		falsePositives.incrementAndGet();
+	}
+
+	public void put(String email) {
+		if (email == null) {
+			return;
+		}
+		add(email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					add(email);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Records that an email left the table (user deleted or email changed).
+	 * Nothing is removed from the filter; enough stale entries trigger a
+	 * rebuild.
+	 */
+	public void markStale() {
+		stale.incrementAndGet();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("users.email.filter.memory", this, x -> x.filter == null ? 0 : x.filter.bitSize() / 8)
+				.baseUnit("bytes").description("Size of the email Bloom filter bit array").register(registry);
+		Gauge.builder("users.email.filter.false.positive.rate", this,
+				x -> x.filter == null ? 1 : x.filter.expectedFalsePositiveRate())
+				.description("False-positive rate implied by the bits currently set").register(registry);
+		Gauge.builder("users.email.filter.false.positive.target", this, x -> x.falsePositiveRate)
+				.description("Configured false-positive rate").register(registry);
+		Gauge.builder("users.email.filter.stale", stale, AtomicLong::get)
+				.description("Removed emails still set in the filter").register(registry);
+		FunctionCounter.builder("users.email.filter.lookups", negatives, AtomicLong::get).tag("result", "negative")
+				.description("Email lookups by filter answer").register(registry);
+		FunctionCounter.builder("users.email.filter.lookups", positives, AtomicLong::get).tag("result", "positive")
+				.description("Email lookups by filter answer").register(registry);
+		FunctionCounter.builder("users.email.filter.false.positives", falsePositives, AtomicLong::get)
+				.description("Positive lookups that found no user").register(registry);
+	}
+
+	/** Reads {@code pending} first: rebuild publishes {@code filter} before clearing it. */
+	private void add(String email) {
+		BloomFilter next = pending;
+		if (next != null) {
+			next.put(email);
+		}
+		BloomFilter current = filter;
+		if (current != null) {
+			current.put(email);
+		}
+	}
+}
@@ -17,6 +17,9 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
 	
 	@Autowired
 	private UserRepository userRepository;
+
+	@Autowired
+	private EmailFilter emailFilter;
 	
 	@Override
 	public void initialize(UserInsertValid ann) {
@@ -29,9 +32,13 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
 		
 		// Coloque aqui seus testes de validação, acrescentando objetos FieldMessage à lista
 		
-		User user = userRepository.findByEmail(dto.getEmail());
-		if (user != null) {
-			list.add(new FieldMessage("email", "O Email " + user.getEmail() + " já existe em nossa base de dados"));
+		if (emailFilter.mightContain(dto.getEmail())) {
+			User user = userRepository.findByEmail(dto.getEmail());
+			if (user != null) {
+				list.add(new FieldMessage("email", "O Email " + user.getEmail() + " já existe em nossa base de dados"));
+			} else {
+				emailFilter.falsePositive();
+			}
 		}
 		
 		for (FieldMessage e : list) {
@@ -21,7 +21,7 @@ public class Factory {
 	}
 	
 	public static Category createCategory() {
-		Category category = new Category(10L, "Notebooks");
+		Category category = new Category(1L, "Livros");
 		return category;		
 	}
 
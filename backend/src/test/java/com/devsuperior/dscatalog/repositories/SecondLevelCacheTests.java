@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.repositories;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.entities.Role;
+import com.devsuperior.dscatalog.entities.User;
+
+@DataJpaTest
+public class SecondLevelCacheTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	public void findByIdShouldNotQueryWhenCategoryAndRoleWereResolvedBefore() {
+		categoryRepository.findById(1L);
+		roleRepository.findById(2L);
+		entityManager.clear();
+		statistics.clear();
+
+		for (int i = 0; i < 3; i++) {
+			Category category = categoryRepository.getOne(1L);
+			Role role = roleRepository.getOne(2L);
+			Assertions.assertEquals("Livros", category.getName());
+			Assertions.assertEquals("ROLE_ADMIN", role.getAuthority());
+			entityManager.clear();
+		}
+
+		Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+		Assertions.assertEquals(6, statistics.getSecondLevelCacheHitCount());
+	}
+
+	@Test
+	public void collectionsShouldResolveFromCacheWhenLoadedBefore() {
+		entityManager.find(Product.class, 1L).getCategories().size();
+		entityManager.find(User.class, 2L);
+		entityManager.clear();
+		statistics.clear();
+
+		Product product = entityManager.find(Product.class, 1L);
+		Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+		User user = entityManager.find(User.class, 2L);
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
+		Assertions.assertEquals(1, product.getCategories().size());
+		Assertions.assertEquals(2, user.getRoles().size());
+		Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
@@ -2,20 +2,35 @@ package com.devsuperior.dscatalog.resources;
 
 
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ImportProgressDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.factories.Factory;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -57,6 +72,388 @@ public class ProductResourceIT {
 		
 	}
 	
+	@Test
+	public void findAllShouldReturnOnlyRequestedFieldsWhenFieldsArePresent() throws Exception {
+		mockMvc.perform(get("/products?page=0&size=12&sort=name,asc&fields=id,name,price,imgUrl")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.totalElements").value(countTotalProducts))
+		.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"))
+		.andExpect(jsonPath("$.content[0].price").exists())
+		.andExpect(jsonPath("$.content[0].description").doesNotExist())
+		.andExpect(jsonPath("$.content[0].categories").doesNotExist());
+		
+		mockMvc.perform(get("/products?fields=id,password")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldFilterAndReturnFacetsWhenFiltersArePresent() throws Exception {
+		mockMvc.perform(get("/products?categoryId=1&categoryId=2&maxPrice=1000")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content[0].name").value("The Lord of the Rings"))
+		.andExpect(jsonPath("$.content[1].name").value("Rails for Dummies"))
+		.andExpect(jsonPath("$.totalElements").value(2))
+		.andExpect(jsonPath("$.facets.categories[0].id").value(1))
+		.andExpect(jsonPath("$.facets.categories[0].count").value(0))
+		.andExpect(jsonPath("$.facets.prices[0].count").value(1));
+	}
+	
+	@Test
+	public void findByIdShouldReturnNotModifiedOnlyWhenETagMatches() throws Exception {
+		String eTag = mockMvc.perform(get("/products/{id}", existingId))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified());
+		
+		mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, "\"v-1\""))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.ETAG, eTag))
+		.andExpect(jsonPath("$.id").value(existingId));
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void findByIdShouldChangeETagWhenEmbeddedCategoryIsRenamed() throws Exception {
+		String eTag = mockMvc.perform(get("/products/{id}", existingId))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.containsString("\"Livros\"")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(put("/categories/{id}", 1L)
+				.content("{\"name\":\"Livros e HQs\"}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+		try {
+			mockMvc.perform(get("/products/{id}", existingId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+			.andExpect(status().isOk())
+			.andExpect(content().string(Matchers.containsString("\"Livros e HQs\"")));
+		} finally {
+			mockMvc.perform(put("/categories/{id}", 1L)
+					.content("{\"name\":\"Livros\"}")
+					.contentType(MediaType.APPLICATION_JSON))
+					.andExpect(status().isOk());
+		}
+	}
+	
+	@Test
+	public void findAllShouldReturnNotModifiedWhenPageETagMatches() throws Exception {
+		String eTag = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/products?page=0&size=12&sort=name,asc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified());
+		
+		mockMvc.perform(get("/products?page=1&size=12&sort=name,asc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isOk());
+	}
+	
+	@Test
+	public void findAllShouldServeStoredGzipVariantOfHotPage() throws Exception {
+		byte[] identity = mockMvc.perform(get("/products"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		
+		byte[] gzip = mockMvc.perform(get("/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn().getResponse().getContentAsByteArray();
+		
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			Assertions.assertArrayEquals(identity, in.readAllBytes());
+		}
+	}
+	
+	@Test
+	public void findAllShouldReturnNotModifiedFromStoredHotPage() throws Exception {
+		String eTag = mockMvc.perform(get("/products?page=1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.number").value(1))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(get("/products?page=1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified());
+	}
+	
+	@Test
+	public void findByIdShouldRecordSqlStatementsPerRoute() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingId))
+		.andExpect(status().isOk());
+		
+		mockMvc.perform(get("/actuator/metrics/http.server.requests.sql.statements")
+				.param("tag", "uri:/products/{id}"))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.measurements[0].statistic").value("COUNT"))
+		.andExpect(jsonPath("$.availableTags[0].tag").value("method"));
+	}
+	
+	@Test
+	public void exportShouldStreamOneJsonLinePerProduct() throws Exception {
+		String body = mockMvc.perform(get("/products/export"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] lines = body.split("\n");
+		ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+		Assertions.assertEquals(countTotalProducts, lines.length);
+		Assertions.assertEquals(1L, first.getId());
+		Assertions.assertEquals(2L, first.getCategories().get(0).getId());
+	}
+	
+	@Test
+	public void exportShouldStreamCsvWithHeaderWhenFormatIsCsv() throws Exception {
+		String body = mockMvc.perform(get("/products/export?format=csv"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] lines = body.split("\n");
+		Assertions.assertEquals(countTotalProducts + 1, lines.length);
+		Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+		Assertions.assertTrue(lines[2].startsWith("2,Smart TV,"));
+	}
+	
+	@Test
+	public void exportShouldReturnBadRequestWhenFormatIsUnsupported() throws Exception {
+		mockMvc.perform(get("/products/export?format=xml"))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void importShouldReportProgressAndPerItemErrors() throws Exception {
+		String feed = "{\"name\":\"Imported product\",\"price\":10.0,\"categories\":[{\"id\":1}]}\n"
+				+ "{\"name\":\"Tiny\",\"price\":10.0}\n"
+				+ "{\"name\":\"Another imported\",\"price\":20.0,\"categories\":[{\"id\":2}]}\n";
+		
+		String body = mockMvc.perform(post("/products/import").content(feed))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] lines = body.split("\n");
+		ImportProgressDTO summary = objectMapper.readValue(lines[lines.length - 1], ImportProgressDTO.class);
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertTrue(body.contains("\"index\":1"));
+		Assertions.assertTrue(summary.getDone());
+		Assertions.assertEquals(3L, summary.getRead());
+		Assertions.assertEquals(2L, summary.getImported());
+		Assertions.assertEquals(1L, summary.getFailed());
+	}
+	
+	@Test
+	public void importShouldReadBackTheCsvExport() throws Exception {
+		byte[] export = mockMvc.perform(get("/products/export?format=csv"))
+				.andReturn().getResponse().getContentAsByteArray();
+		
+		String body = mockMvc.perform(post("/products/import?format=csv").content(export))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] lines = body.split("\n");
+		ImportProgressDTO summary = objectMapper.readValue(lines[lines.length - 1], ImportProgressDTO.class);
+		Assertions.assertEquals(countTotalProducts, summary.getImported());
+		Assertions.assertEquals(0L, summary.getFailed());
+	}
+	
+	@Test
+	public void importShouldReportUnknownCsvCategoryByName() throws Exception {
+		String feed = "id,name,description,price,imgUrl,date,categories\n"
+				+ ",Imported product,,10.0,,,Livros|Brinquedos\n";
+		
+		String body = mockMvc.perform(post("/products/import?format=csv").content(feed))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertTrue(body.contains("Categoria Brinquedos não encontrada"));
+		Assertions.assertFalse(body.contains("Categoria null"));
+	}
+	
+	@Test
+	public void findAllShouldReturnCursorPageWhenAfterIsPresent() throws Exception {
+		mockMvc.perform(get("/products?after=&size=3&sort=name")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content.length()").value(3))
+		.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"))
+		.andExpect(jsonPath("$.hasNext").value(true))
+		.andExpect(jsonPath("$.next").exists())
+		.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void findAllShouldReturnSliceWithoutTotalWhenSliceIsTrue() throws Exception {
+		mockMvc.perform(get("/products?slice=true&page=0&size=12")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.content.length()").value(12))
+		.andExpect(jsonPath("$.hasNext").value(true))
+		.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+		mockMvc.perform(get("/products?after=@@@")
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void patchShouldReturnNoContentAndChangeETagWhenIdExists() throws Exception {
+		String eTag = mockMvc.perform(get("/products/{id}", existingId))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(patch("/products/{id}", existingId)
+				.content("{\"price\": 1250.0}")
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isNoContent());
+		
+		mockMvc.perform(get("/products/{id}", existingId)
+				.header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isOk());
+	}
+	
+	@Test
+	public void patchShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+		mockMvc.perform(patch("/products/{id}", nonExistingId)
+				.content("{\"price\": 1250.0}")
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void patchShouldReturnBadRequestWhenNoFieldIsSet() throws Exception {
+		mockMvc.perform(patch("/products/{id}", existingId)
+				.content("{}")
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void patchAllShouldReportPerItemResults() throws Exception {
+		String jsonBody = "[{\"id\": 1, \"price\": 99.5}, {\"id\": " + nonExistingId + ", \"price\": 10.0},"
+				+ " {\"id\": 3, \"price\": -1.0}, {\"price\": 10.0}]";
+		
+		mockMvc.perform(patch("/products/batch")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.succeeded").value(1))
+		.andExpect(jsonPath("$.failed").value(3))
+		.andExpect(jsonPath("$.items[0].id").value(1))
+		.andExpect(jsonPath("$.items[1].errors[0].fieldName").value("id"))
+		.andExpect(jsonPath("$.items[2].errors[0].fieldName").value("price"))
+		.andExpect(jsonPath("$.items[3].errors[0].fieldName").value("id"));
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void patchAllShouldApplyItemsWithDifferentFieldSets() throws Exception {
+		String jsonBody = "[{\"id\": 1, \"price\": 91.5}, {\"id\": 2, \"price\": 2191.0},"
+				+ " {\"id\": 3, \"name\": \"Macbook Pro Max\", \"price\": 1251.0}]";
+		try {
+			mockMvc.perform(patch("/products/batch")
+					.content(jsonBody)
+					.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.succeeded").value(3));
+			
+			mockMvc.perform(get("/products/{id}", 3L).accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Macbook Pro Max"))
+			.andExpect(jsonPath("$.price").value(1251.0));
+			mockMvc.perform(get("/products/{id}", 2L).accept(MediaType.APPLICATION_JSON))
+			.andExpect(jsonPath("$.price").value(2191.0));
+		} finally {
+			mockMvc.perform(patch("/products/batch")
+					.content("[{\"id\": 1, \"price\": 90.5}, {\"id\": 2, \"price\": 2190.0},"
+							+ " {\"id\": 3, \"name\": \"Macbook Pro\", \"price\": 1250.0}]")
+					.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(jsonPath("$.succeeded").value(3));
+		}
+	}
+	
+	@Test
+	public void deleteAllShouldReturnPerIdResults() throws Exception {
+		mockMvc.perform(delete("/products?ids={a},{b}", existingId, nonExistingId))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.succeeded").value(1))
+		.andExpect(jsonPath("$.items[0].id").value(existingId))
+		.andExpect(jsonPath("$.items[1].errors[0].fieldName").value("id"));
+	}
+	
+	@Test
+	public void deleteByFilterShouldReturnBadRequestWhenNoFilterIsGiven() throws Exception {
+		mockMvc.perform(delete("/products"))
+		.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void categoriesShouldReflectCommittedProductInsertInCountAndETag() throws Exception {
+		MvcResult before = mockMvc.perform(get("/categories").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andReturn();
+		long count = objectMapper.readTree(before.getResponse().getContentAsString())
+				.at("/content/0/productCount").asLong();
+		
+		String jsonBody = objectMapper.writeValueAsString(Factory.createProductDTO());
+		String created = mockMvc.perform(post("/products")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long id = objectMapper.readTree(created).get("id").asLong();
+		try {
+			MvcResult after = mockMvc.perform(get("/categories").accept(MediaType.APPLICATION_JSON))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.content[0].productCount").value(count + 1))
+					.andReturn();
+			Assertions.assertNotEquals(before.getResponse().getHeader(HttpHeaders.ETAG),
+					after.getResponse().getHeader(HttpHeaders.ETAG));
+		} finally {
+			mockMvc.perform(delete("/products/{id}", id)).andExpect(status().isNoContent());
+		}
+	}
+	
+	@Test
+	public void categoryStatsShouldReturnProductCountOfCategory() throws Exception {
+		mockMvc.perform(get("/categories/{id}/stats", 3L)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.name").value("Computadores"))
+		.andExpect(jsonPath("$.productCount").value(23));
+		
+		mockMvc.perform(get("/categories/{id}", 3L)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(jsonPath("$.productCount").value(23));
+		
+		mockMvc.perform(get("/categories/{id}/stats", nonExistingId)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void updateShouldReturnBadRequestWhenCategoryDoesNotExist() throws Exception {
+		
+		ProductDTO productDto = Factory.createProductDTO();
+		productDto.getCategories().add(new CategoryDTO(nonExistingId, null));
+		String jsonBody = objectMapper.writeValueAsString(productDto);
+		
+		mockMvc.perform(put("/products/{id}", existingId)
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isBadRequest())
+		.andExpect(jsonPath("$.message").value("Categories not found: " + nonExistingId));
+	}
+	
 	@Test
 	public void updateShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
 		
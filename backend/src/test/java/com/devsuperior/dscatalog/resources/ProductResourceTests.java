@@ -4,11 +4,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -21,11 +24,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.VersionDTO;
+import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.factories.Factory;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
@@ -43,6 +51,9 @@ public class ProductResourceTests {
 	@MockBean
 	private ProductService service;
 	
+	@MockBean
+	private ProductImportService importService;
+	
 	private Long existingID;
 	private Long nonExistingID;
 	private Long dependentID;
@@ -52,18 +63,24 @@ public class ProductResourceTests {
 	@BeforeEach
 	void setUp() throws Exception {
 		productDto = Factory.createProductDTO();
+		productDto.setVersion(0);
 		page = new PageImpl<>(List.of(productDto));
 		existingID = 1L;
 		nonExistingID = 1000L;
 		dependentID = 3L;
 		
 		when(service.findAllPaged(any())).thenReturn(page);
+		when(service.findPageOfVersions(any())).thenReturn(new PageImpl<>(List.of(new VersionDTO(existingID, 0))));
+		
+		when(service.findDetailVersions(existingID)).thenReturn(List.of(new VersionDTO(existingID, 0), new VersionDTO(1L, null)));
+		when(service.findDetailVersions(nonExistingID)).thenThrow(ResourceNotFoundException.class);
 		
 		when(service.findById(existingID)).thenReturn(productDto);
 		when(service.findById(nonExistingID)).thenThrow(ResourceNotFoundException.class);
 		
 		when(service.update(eq(existingID), any())).thenReturn(productDto);
 		when(service.update(eq(nonExistingID), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(dependentID), any())).thenThrow(new ObjectOptimisticLockingFailureException(Product.class, dependentID));
 		
 		doNothing().when(service).delete(existingID);
 		doThrow(ResourceNotFoundException.class).when(service).delete(nonExistingID);
@@ -88,6 +105,33 @@ public class ProductResourceTests {
 		.andExpect(jsonPath("$.description").exists());
 	}
 	
+	@Test
+	public void findAllShouldNotLookUpVersionsWithoutIfNoneMatch() throws Exception {
+		mockMvc.perform(get("/products")).andExpect(status().isOk())
+		.andExpect(header().exists(HttpHeaders.ETAG));
+		
+		verify(service, never()).findPageOfVersions(any());
+	}
+	
+	@Test
+	public void findByIdShouldNotLookUpVersionsWithoutIfNoneMatch() throws Exception {
+		mockMvc.perform(get("/products/{id}", existingID).accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isOk())
+		.andExpect(header().string(HttpHeaders.ETAG, ETags.of(productDto)));
+		
+		verify(service, never()).findDetailVersions(any());
+	}
+	
+	@Test
+	public void findByIdShouldReturnNotModifiedWithoutLoadingProductWhenETagMatches() throws Exception {
+		String eTag = ETags.of(productDto);
+		mockMvc.perform(get("/products/{id}", existingID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+		.andExpect(status().isNotModified())
+		.andExpect(header().string(HttpHeaders.ETAG, eTag));
+		
+		verify(service, never()).findById(existingID);
+	}
+	
 	@Test
 	public void findByIdShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
 		mockMvc.perform(get("/products/{id}", nonExistingID).accept(MediaType.APPLICATION_JSON))
@@ -122,6 +166,18 @@ public class ProductResourceTests {
 		.andExpect(status().isNotFound());
 	}
 	
+	@Test
+	public void updateIdShouldReturnConflictWhenProductWasModifiedConcurrently() throws Exception {
+		
+		String jsonBody = objectMapper.writeValueAsString(productDto);
+		
+		mockMvc.perform(put("/products/{id}", dependentID)
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+		.andExpect(status().isConflict());
+	}
+	
 	@Test
 	public void insertIdShouldReturnCreatedAndProductDTO() throws Exception {
 		
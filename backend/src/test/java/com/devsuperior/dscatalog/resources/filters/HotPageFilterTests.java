@@ -0,0 +1,102 @@
+package com.devsuperior.dscatalog.resources.filters;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletResponse;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class HotPageFilterTests {
+
+	private HotPageFilter filter;
+	private AtomicInteger data;
+	private AtomicInteger renders;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		filter = new HotPageFilter(3, Duration.ofSeconds(30));
+		data = new AtomicInteger(1);
+		renders = new AtomicInteger();
+	}
+
+	@Test
+	public void doFilterShouldServeStoredPageUntilInvalidated() throws Exception {
+		FilterChain chain = (request, response) -> render(response, data.get());
+
+		Assertions.assertEquals("1", get(chain));
+		Assertions.assertEquals("1", get(chain));
+		Assertions.assertEquals(1, renders.get());
+
+		data.set(2);
+		filter.onProductChanged(null);
+
+		Assertions.assertEquals("2", get(chain));
+		Assertions.assertEquals(2, renders.get());
+	}
+
+	@Test
+	public void doFilterShouldNotServePageRenderedBeforeAnInvalidationThatLandedMidRender() throws Exception {
+		FilterChain writeDuringRender = (request, response) -> {
+			int value = data.get();
+			data.set(2);
+			filter.onProductChanged(null);
+			render(response, value);
+		};
+		FilterChain chain = (request, response) -> render(response, data.get());
+
+		Assertions.assertEquals("1", get(writeDuringRender));
+		Assertions.assertEquals("2", get(chain));
+	}
+
+	@Test
+	public void doFilterShouldNotServePageStoredAfterAnInvalidationThatRacedItsStore() throws Exception {
+		Cache<String, HotPageFilter.Entry> stored = Caffeine.newBuilder().build();
+		AtomicBoolean raced = new AtomicBoolean();
+		@SuppressWarnings("unchecked")
+		Cache<String, HotPageFilter.Entry> racing = (Cache<String, HotPageFilter.Entry>) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { Cache.class }, (proxy, method, args) -> {
+					if (method.getName().equals("put") && raced.compareAndSet(false, true)) {
+						data.set(2);
+						filter.onProductChanged(null);
+					}
+					try {
+						return method.invoke(stored, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		filter = new HotPageFilter(3, racing);
+		FilterChain chain = (request, response) -> render(response, data.get());
+
+		Assertions.assertEquals("1", get(chain));
+		Assertions.assertTrue(raced.get());
+		Assertions.assertEquals("2", get(chain));
+	}
+
+	private String get(FilterChain chain) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response.getContentAsString();
+	}
+
+	private void render(ServletResponse response, int value) throws IOException {
+		renders.incrementAndGet();
+		response.setContentType("application/json");
+		response.getOutputStream().write(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+	}
+}
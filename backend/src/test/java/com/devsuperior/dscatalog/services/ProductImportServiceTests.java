@@ -0,0 +1,28 @@
+package com.devsuperior.dscatalog.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ProductImportServiceTests {
+
+	@Test
+	public void checkChunkSizeShouldRejectChunksLargerThanABatch() {
+		ProductImportService service = new ProductImportService();
+		ReflectionTestUtils.setField(service, "chunkSize", ProductService.MAX_BATCH_SIZE + 1);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			service.checkChunkSize();
+		});
+	}
+
+	@Test
+	public void checkChunkSizeShouldAcceptChunksUpToABatch() {
+		ProductImportService service = new ProductImportService();
+		ReflectionTestUtils.setField(service, "chunkSize", ProductService.MAX_BATCH_SIZE);
+
+		Assertions.assertDoesNotThrow(() -> {
+			service.checkChunkSize();
+		});
+	}
+}
@@ -1,19 +1,44 @@
 package com.devsuperior.dscatalog.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.devsuperior.dscatalog.dto.BatchResultDTO;
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductPatchDTO;
+import com.devsuperior.dscatalog.dto.SliceDTO;
+import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.metrics.SqlStatistics;
 
 @SpringBootTest
 @Transactional
@@ -25,6 +50,15 @@ public class ProductServiceIT {
 	@Autowired
 	private ProductRepository repository;
 	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	private EntityManager entityManager;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
 	private Long existingId;
 	private Long nonExistingId;
 	private Long countTotalProducts;
@@ -51,6 +85,59 @@ public class ProductServiceIT {
 		});
 	}
 	
+	@Test
+	public void deleteAllShouldDeleteExistingIdsAndReportMissingOnes() {
+		BatchResultDTO result = service.deleteAll(List.of(existingId, nonExistingId, 3L));
+		
+		Assertions.assertEquals(2, result.getSucceeded());
+		Assertions.assertNull(result.getItems().get(1).getId());
+		Assertions.assertEquals("id", result.getItems().get(1).getErrors().get(0).getFieldName());
+		Assertions.assertEquals(countTotalProducts - 2, repository.count());
+	}
+	
+	@Test
+	public void findAllFieldsShouldSelectOnlyRequestedFieldsWithoutLoadingEntities() {
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			Page<Map<String, Object>> result = service.findAllFields(PageRequest.of(0, 10, Sort.by("id")), List.of("id", "name", "price"));
+			
+			Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+			Assertions.assertEquals(List.of("id", "name", "price"), new ArrayList<>(result.getContent().get(0).keySet()));
+			Assertions.assertEquals(1L, result.getContent().get(0).get("id"));
+			Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		}
+	}
+	
+	@Test
+	public void findAllFieldsShouldThrowBadRequestExceptionWhenFieldIsUnknown() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findAllFields(PageRequest.of(0, 10), List.of("name", "categories"));
+		});
+	}
+	
+	@Test
+	public void deleteByFilterShouldDeleteEveryProductInCategoryWithSetBasedStatements() {
+		long inCategory = repository.findIdsByFilter(List.of(3L), null, null).size();
+		
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			BatchResultDTO result = service.deleteByFilter(List.of(3L), null, null);
+			
+			Assertions.assertEquals(inCategory, result.getSucceeded());
+			Assertions.assertEquals(4, statistics.getPrepareStatementCount());
+			Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		}
+		Assertions.assertTrue(repository.findIdsByFilter(List.of(3L), null, null).isEmpty());
+		Assertions.assertEquals(countTotalProducts - inCategory, repository.count());
+	}
+	
+	@Test
+	public void deleteByFilterShouldThrowBadRequestExceptionWhenNoFilterIsGiven() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.deleteByFilter(null, null, null);
+		});
+	}
+	
 	@Test
 	public void findAllPagedShouldReturnPagedWhenPage0Size10() {
 		PageRequest pageRequest = PageRequest.of(0, 10);
@@ -85,4 +172,334 @@ public class ProductServiceIT {
 		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
 		
 	}
+	
+	@Test
+	public void findByIdShouldReturnProductWithCategories() {
+		ProductDTO result = service.findById(existingId);
+		
+		Assertions.assertEquals(existingId, result.getId());
+		Assertions.assertFalse(result.getCategories().isEmpty());
+	}
+	
+	@Test
+	public void findAllPagedWithCategoriesShouldReturnCategoriesInline() {
+		Page<ProductDTO> result = service.findAllPagedWithCategories(PageRequest.of(0, 10, Sort.by("name")));
+		
+		Assertions.assertEquals(10, result.getContent().size());
+		Assertions.assertEquals("Macbook Pro", result.getContent().get(0).getName());
+		Assertions.assertFalse(result.getContent().get(0).getCategories().isEmpty());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+	}
+	
+	@Test
+	public void findAllPagedWithCategoriesShouldIssueSameQueryCountForAnyPageSize() {
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			service.findAllPagedWithCategories(PageRequest.of(0, 5));
+			long smallPage = statistics.getPrepareStatementCount();
+			
+			statistics.clear();
+			service.findAllPagedWithCategories(PageRequest.of(0, 20));
+			long largePage = statistics.getPrepareStatementCount();
+			
+			Assertions.assertEquals(3, smallPage);
+			Assertions.assertEquals(smallPage, largePage);
+		}
+	}
+	
+	@Test
+	public void updateShouldIncrementVersion() {
+		Integer version = service.findVersion(existingId);
+		ProductDTO dto = new ProductDTO(null, "Updated product", "Description", 10.0, null, null);
+		dto.getCategories().add(new CategoryDTO(1L, null));
+		
+		service.update(existingId, dto);
+		
+		Assertions.assertEquals(version + 1, service.findVersion(existingId));
+	}
+	
+	@Test
+	public void updateShouldNotTouchProductOrJoinTableWhenNothingChanged() {
+		ProductDTO dto = productDto(existingId);
+		Integer version = service.findVersion(existingId);
+		entityManager.clear();
+		
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			service.update(existingId, dto);
+			entityManager.flush();
+			
+			Assertions.assertEquals(0, statistics.getEntityUpdateCount());
+			Assertions.assertEquals(0, statistics.getCollectionUpdateCount());
+			Assertions.assertEquals(version, service.findVersion(existingId));
+		}
+	}
+	
+	@Test
+	public void updateShouldOnlyInsertAddedAndDeleteRemovedCategories() {
+		ProductDTO dto = productDto(existingId);
+		Long removed = dto.getCategories().get(0).getId();
+		Long added = removed.equals(1L) ? 2L : 1L;
+		dto.getCategories().remove(0);
+		dto.getCategories().removeIf(x -> x.getId().equals(added));
+		dto.getCategories().add(new CategoryDTO(added, null));
+		Set<Long> expected = dto.getCategories().stream().map(CategoryDTO::getId).collect(Collectors.toSet());
+		entityManager.clear();
+		
+		service.update(existingId, dto);
+		entityManager.flush();
+		entityManager.clear();
+		
+		Set<Long> result = productDto(existingId).getCategories().stream().map(CategoryDTO::getId)
+				.collect(Collectors.toSet());
+		Assertions.assertEquals(expected, result);
+	}
+	
+	@Test
+	public void updateShouldThrowBadRequestExceptionListingEveryUnknownCategory() {
+		ProductDTO dto = productDto(existingId);
+		dto.getCategories().add(new CategoryDTO(nonExistingId, null));
+		dto.getCategories().add(new CategoryDTO(nonExistingId + 1, null));
+		
+		BadRequestException e = Assertions.assertThrows(BadRequestException.class, () -> {
+			service.update(existingId, dto);
+		});
+		Assertions.assertEquals("Categories not found: 1000, 1001", e.getMessage());
+	}
+	
+	@Test
+	public void patchShouldIssueSingleUpdateWithoutLoadingProduct() {
+		Integer version = service.findVersion(existingId);
+		String name = productDto(existingId).getName();
+		entityManager.clear();
+		ProductPatchDTO dto = new ProductPatchDTO();
+		dto.setPrice(99.5);
+		
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			service.patch(existingId, dto);
+			
+			Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+			Assertions.assertEquals(0, statistics.getEntityLoadCount());
+		}
+		ProductDTO result = productDto(existingId);
+		Assertions.assertEquals(99.5, result.getPrice());
+		Assertions.assertEquals(name, result.getName());
+		Assertions.assertEquals(version + 1, result.getVersion());
+	}
+	
+	@Test
+	public void patchAllShouldSendOneBatchPerDistinctColumnSet() {
+		List<ProductPatchDTO> dtos = new ArrayList<>();
+		for (long id = 1; id <= 7; id++) {
+			dtos.add(new ProductPatchDTO());
+			dtos.get(dtos.size() - 1).setId(id);
+		}
+		dtos.get(0).setPrice(10.0);
+		dtos.get(1).setName("Patched name");
+		dtos.get(2).setDescription("Patched description");
+		dtos.get(3).setImgUrl("patched.jpg");
+		dtos.get(4).setDate(Instant.parse("2021-01-01T00:00:00Z"));
+		dtos.get(5).setName("Patched name and price");
+		dtos.get(5).setPrice(20.0);
+		dtos.get(6).setPrice(30.0);
+		
+		SqlStatistics.start();
+		BatchResultDTO result;
+		int statements;
+		try {
+			result = service.patchAll(dtos);
+		} finally {
+			statements = SqlStatistics.stop().getStatements();
+		}
+		
+		Assertions.assertEquals(7L, result.getSucceeded());
+		Assertions.assertEquals(1 + 6, statements);
+		Assertions.assertEquals("Patched name", repository.findById(2L).get().getName());
+		Assertions.assertEquals("Patched name and price", repository.findById(6L).get().getName());
+		Assertions.assertEquals(20.0, repository.findById(6L).get().getPrice());
+		Assertions.assertEquals(30.0, repository.findById(7L).get().getPrice());
+	}
+	
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void updateShouldThrowOptimisticLockingFailureWhenPatchedConcurrently() {
+		ProductDTO original = service.findById(existingId);
+		ProductDTO dto = new ProductDTO(existingId, original.getName() + " II", original.getDescription(),
+				original.getPrice(), original.getImgUrl(), original.getDate());
+		dto.getCategories().addAll(original.getCategories());
+		ProductPatchDTO patch = new ProductPatchDTO();
+		patch.setPrice(original.getPrice() + 1);
+		try {
+			Assertions.assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+				new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+					service.update(existingId, dto);
+					CompletableFuture.runAsync(() -> service.patch(existingId, patch)).join();
+				});
+			});
+		} finally {
+			ProductPatchDTO restore = new ProductPatchDTO();
+			restore.setPrice(original.getPrice());
+			service.patch(existingId, restore);
+		}
+	}
+	
+	@Test
+	public void patchShouldClearColumnWhenValueIsExplicitlyNull() {
+		ProductPatchDTO dto = new ProductPatchDTO();
+		dto.setImgUrl(null);
+		
+		service.patch(existingId, dto);
+		entityManager.clear();
+		
+		Assertions.assertNull(productDto(existingId).getImgUrl());
+	}
+	
+	@Test
+	public void patchShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+		ProductPatchDTO dto = new ProductPatchDTO();
+		dto.setPrice(99.5);
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.patch(nonExistingId, dto);
+		});
+	}
+	
+	@Test
+	public void findVersionShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.findVersion(nonExistingId);
+		});
+	}
+	
+	@Test
+	public void insertAllShouldInsertValidItemsInJdbcBatchesAndReportInvalidOnes() {
+		List<ProductDTO> dtos = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ProductDTO dto = new ProductDTO(null, "Batch product " + i, "Description", 10.0 + i, null, null);
+			dto.getCategories().add(new CategoryDTO(1L, null));
+			dtos.add(dto);
+		}
+		dtos.get(10).setName("Tiny");
+		dtos.get(20).getCategories().add(new CategoryDTO(nonExistingId, null));
+		
+		try (MeasuredStatistics measured = measureStatistics()) {
+			Statistics statistics = measured.get();
+			BatchResultDTO result = service.insertAll(dtos);
+			
+			Assertions.assertEquals(198, result.getSucceeded());
+			Assertions.assertEquals(2, result.getFailed());
+			Assertions.assertFalse(result.getItems().get(10).getSuccess());
+			Assertions.assertEquals("name", result.getItems().get(10).getErrors().get(0).getFieldName());
+			Assertions.assertNull(result.getItems().get(20).getId());
+			Assertions.assertNotNull(result.getItems().get(21).getId());
+			Assertions.assertEquals(countTotalProducts + 198, repository.count());
+			Assertions.assertTrue(statistics.getPrepareStatementCount() < 20);
+		}
+	}
+	
+	@Test
+	public void insertAllShouldThrowBadRequestExceptionWhenBatchIsTooLarge() {
+		List<ProductDTO> dtos = Collections.nCopies(ProductService.MAX_BATCH_SIZE + 1, new ProductDTO());
+		
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.insertAll(dtos);
+		});
+	}
+	
+	@Test
+	public void searchShouldRankNameMatchesFirst() {
+		Page<ProductDTO> result = service.search("pc gamer alfa", PageRequest.of(0, 5));
+		
+		Assertions.assertEquals(5, result.getContent().size());
+		Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(0).getName());
+		Assertions.assertTrue(result.getTotalElements() > 5);
+	}
+	
+	@Test
+	public void searchShouldThrowBadRequestExceptionWhenQueryIsBlank() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.search(" ", PageRequest.of(0, 5));
+		});
+	}
+	
+	@Test
+	public void findAllSlicedShouldReturnSliceWithoutTotalWhenTotalNotRequested() {
+		SliceDTO<ProductDTO> result = service.findAllSliced(PageRequest.of(0, 10), false);
+		
+		Assertions.assertEquals(10, result.getContent().size());
+		Assertions.assertTrue(result.isHasNext());
+		Assertions.assertNull(result.getTotalElements());
+	}
+	
+	@Test
+	public void findAllSlicedShouldReturnApproximateTotalWhenTotalRequested() {
+		SliceDTO<ProductDTO> result = service.findAllSliced(PageRequest.of(2, 10), true);
+		
+		Assertions.assertEquals(5, result.getContent().size());
+		Assertions.assertFalse(result.isHasNext());
+		Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+	}
+	
+	@Test
+	public void findAllByCursorShouldContinueAfterCursorWhenSortByName() {
+		CursorPageDTO<ProductDTO> first = service.findAllByCursor(null, 2, "name");
+		
+		Assertions.assertEquals(2, first.getContent().size());
+		Assertions.assertEquals("Macbook Pro", first.getContent().get(0).getName());
+		Assertions.assertNotNull(first.getNext());
+		
+		CursorPageDTO<ProductDTO> second = service.findAllByCursor(first.getNext(), 2, "id");
+		
+		Assertions.assertEquals("PC Gamer Alfa", second.getContent().get(0).getName());
+	}
+	
+	@Test
+	public void findAllByCursorShouldReturnNoNextCursorOnLastPage() {
+		CursorPageDTO<ProductDTO> first = service.findAllByCursor(null, countTotalProducts.intValue() - 1, "id");
+		CursorPageDTO<ProductDTO> last = service.findAllByCursor(first.getNext(), 10, "id");
+		
+		Assertions.assertEquals(1, last.getContent().size());
+		Assertions.assertEquals(countTotalProducts, last.getContent().get(0).getId());
+		Assertions.assertNull(last.getNext());
+	}
+	
+	@Test
+	public void findAllByCursorShouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			service.findAllByCursor("not-a-cursor", 10, "id");
+		});
+	}
+	
+	private ProductDTO productDto(Long id) {
+		Product product = repository.findById(id).get();
+		return new ProductDTO(product, product.getCategories());
+	}
+	
+	private MeasuredStatistics measureStatistics() {
+		return new MeasuredStatistics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+	}
+	
+	/** Hibernate statistics enabled and cleared for one measurement; closing restores the previous enabled state. */
+	private static final class MeasuredStatistics implements AutoCloseable {
+		
+		private final Statistics statistics;
+		private final boolean enabled;
+		
+		private MeasuredStatistics(Statistics statistics) {
+			this.statistics = statistics;
+			this.enabled = statistics.isStatisticsEnabled();
+			statistics.setStatisticsEnabled(true);
+			statistics.clear();
+		}
+		
+		Statistics get() {
+			return statistics;
+		}
+		
+		@Override
+		public void close() {
+			statistics.setStatisticsEnabled(enabled);
+		}
+	}
 }
@@ -6,10 +6,18 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.Validator;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +26,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
@@ -32,7 +42,13 @@ import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.factories.Factory;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.cache.CategoryCache;
+import com.devsuperior.dscatalog.services.cache.CountCache;
+import com.devsuperior.dscatalog.services.cache.ProductCache;
 import com.devsuperior.dscatalog.services.exceptions.DataBaseException;
+import com.devsuperior.dscatalog.services.export.ExportFormat;
+import com.devsuperior.dscatalog.services.search.ProductFacetIndex;
+import com.devsuperior.dscatalog.services.search.ProductSearchIndex;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 
 @ExtendWith(SpringExtension.class)
@@ -47,6 +63,27 @@ public class ProductServiceTests {
 	@Mock
 	private CategoryRepository categoryRepository;
 	
+	@Mock
+	private CategoryCache categoryCache;
+	
+	@Mock
+	private CountCache countCache;
+	
+	@Mock
+	private ProductSearchIndex searchIndex;
+	
+	@Mock
+	private ProductFacetIndex facetIndex;
+	
+	@Mock
+	private Validator validator;
+	
+	@Mock
+	private ApplicationEventPublisher publisher;
+	
+	@Spy
+	private ProductCache productCache = new ProductCache(100, Duration.ZERO);
+	
 	private long existingId;
 	private long noExistingId;
 	private long dependentId;
@@ -110,7 +147,42 @@ public class ProductServiceTests {
 		
 		verify(repository, times(1)).deleteById(dependentId);
 	}
-	
+
+	@Test
+	public void deleteAllShouldThrowDataBaseExceptionWithoutPublishingWhenAChunkViolatesIntegrity() {
+		List<Long> ids = List.of(existingId, dependentId);
+		when(repository.findIdsByIdIn(ids)).thenReturn(ids);
+		when(repository.deleteWithCategoriesByIdIn(ArgumentMatchers.any())).thenThrow(DataIntegrityViolationException.class);
+
+		Assertions.assertThrows(DataBaseException.class, () -> {
+			service.deleteAll(ids);
+		});
+
+		verify(publisher, times(0)).publishEvent(ArgumentMatchers.any());
+	}
+
+	@Test
+	public void exportShouldReadProductsInKeysetChunks() {
+		List<Long> first = LongStream.rangeClosed(1, 500).boxed().collect(Collectors.toList());
+		when(repository.findIdsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any())).thenReturn(first);
+		when(repository.findIdsAfter(ArgumentMatchers.eq(500L), ArgumentMatchers.any())).thenReturn(List.of(501L));
+		when(repository.findExportRowsByIdIn(ArgumentMatchers.any())).thenAnswer(invocation -> {
+			List<Object[]> rows = new ArrayList<>();
+			for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+				rows.add(new Object[] { id, "Product " + id, null, 1.0, null, null, 0, 1L, "Livros" });
+			}
+			return rows;
+		});
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.export(ExportFormat.CSV, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertEquals(502, lines.length);
+		Assertions.assertTrue(lines[501].startsWith("501,"));
+		verify(repository, times(2)).findExportRowsByIdIn(ArgumentMatchers.any());
+	}
+
 	@Test
 	public void findAllPageShouldReturnPage() {
 		
@@ -134,6 +206,17 @@ public class ProductServiceTests {
 		verify(repository, times(1)).findById(existingId);
 	}
 	
+	@Test
+	public void findByIdShouldServeSecondCallFromCache() {
+		
+		service.findById(existingId);
+		ProductDTO result = service.findById(existingId);
+		
+		Assertions.assertNotNull(result);
+		Assertions.assertEquals(1, productCache.stats().hitCount());
+		verify(repository, times(1)).findById(existingId);
+	}
+	
 	@Test
 	public void findByIdShouldThrowResourceNotFoundExceptionWhenIdNotExists() {
 		
@@ -0,0 +1,129 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.services.events.CategoryCountsChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class CategoryProductCountsTests {
+
+	@InjectMocks
+	private CategoryProductCounts counts;
+
+	@Mock
+	private CategoryRepository repository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private ApplicationEventPublisher publisher;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.findProductCounts()).thenReturn(rows(1L, 5L, 2L, 3L));
+		Mockito.doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(ArgumentMatchers.any());
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void addShouldApplyDeltasOnlyWhenTransactionCommits() {
+		TransactionSynchronizationManager.initSynchronization();
+		counts.add(1L, 1);
+		counts.add(1L, 1);
+		Assertions.assertEquals(5L, counts.get(1L));
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+		Assertions.assertEquals(7L, counts.get(1L));
+
+		counts.add(1L, -1);
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+		Assertions.assertEquals(7L, counts.get(1L));
+	}
+
+	@Test
+	public void flushShouldAddPendingDeltasToStoredCounts() {
+		counts.add(1L, 2);
+		counts.add(2L, -1);
+		Mockito.when(repository.findProductCounts()).thenReturn(rows(1L, 7L, 2L, 2L));
+
+		counts.flush();
+
+		Mockito.verify(repository).addProductCount(1L, 2L);
+		Mockito.verify(repository).addProductCount(2L, -1L);
+		Assertions.assertEquals(7L, counts.get(1L));
+		Assertions.assertEquals(2L, counts.get(2L));
+	}
+
+	@Test
+	public void reconcileShouldCorrectDriftNetOfPendingDeltas() {
+		Mockito.when(repository.countProductsByCategory()).thenReturn(rows(1L, 6L, 2L, 4L));
+		counts.add(2L, 1);
+
+		counts.reconcile();
+
+		Mockito.verify(repository).setProductCount(1L, 6L);
+		Mockito.verify(repository, Mockito.never()).setProductCount(ArgumentMatchers.eq(2L), ArgumentMatchers.anyLong());
+	}
+
+	@Test
+	public void reloadShouldPublishEventWhenStoredCountsChange() {
+		counts.get(1L);
+		Mockito.when(repository.findProductCounts()).thenReturn(rows(1L, 9L, 2L, 3L));
+
+		counts.flush();
+
+		ArgumentCaptor<CategoryCountsChangedEvent> event = ArgumentCaptor.forClass(CategoryCountsChangedEvent.class);
+		Mockito.verify(publisher).publishEvent(event.capture());
+		Assertions.assertEquals(List.of(1L), event.getValue().getIds());
+		Assertions.assertEquals(9L, counts.get(1L));
+	}
+
+	private void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationManager.initSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) {
+				synchronization.afterCommit();
+			}
+			synchronization.afterCompletion(status);
+		}
+	}
+
+	private static List<Object[]> rows(long... values) {
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < values.length; i += 2) {
+			rows.add(new Object[] { values[i], values[i + 1] });
+		}
+		return rows;
+	}
+}
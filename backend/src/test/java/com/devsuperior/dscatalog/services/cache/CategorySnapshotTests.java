@@ -0,0 +1,25 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.entities.Category;
+
+public class CategorySnapshotTests {
+
+	@Test
+	public void snapshotShouldNotChangeWhenSourceOrHandedOutEntitiesAreMutated() {
+		Category source = new Category(1L, "Livros", 0);
+		CategorySnapshot snapshot = new CategorySnapshot(new ArrayList<>(List.of(source)));
+
+		source.setName("Changed");
+		snapshot.get(1L).toEntity().setName("Changed");
+
+		Assertions.assertEquals("Livros", snapshot.get(1L).getName());
+		Assertions.assertEquals(1L, snapshot.findByName("Livros").getId());
+		Assertions.assertNull(snapshot.findByName("Changed"));
+	}
+}
@@ -0,0 +1,66 @@
+package com.devsuperior.dscatalog.services.concurrency;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class ConnectionLimiterTests {
+
+	private DataSource target;
+	private ConnectionLimiter limiter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		target = Mockito.mock(DataSource.class);
+		Mockito.when(target.getConnection()).thenAnswer(x -> Mockito.mock(Connection.class));
+		limiter = new ConnectionLimiter(target, 2, Duration.ofMillis(50));
+	}
+
+	@Test
+	public void getConnectionShouldThrowSQLTransientConnectionExceptionWhenAllPermitsAreTaken() throws SQLException {
+		limiter.getConnection();
+		limiter.getConnection();
+
+		Assertions.assertThrows(SQLTransientConnectionException.class, () -> limiter.getConnection());
+		Mockito.verify(target, Mockito.times(2)).getConnection();
+	}
+
+	@Test
+	public void closeShouldReleasePermitOnlyOnce() throws SQLException {
+		Connection connection = limiter.getConnection();
+
+		connection.close();
+		connection.close();
+
+		Assertions.assertEquals(2, limiter.getAvailablePermits());
+	}
+
+	@Test
+	public void getConnectionShouldReleasePermitWhenTargetFails() throws SQLException {
+		Mockito.when(target.getConnection()).thenThrow(new SQLException("down"));
+
+		Assertions.assertThrows(SQLException.class, () -> limiter.getConnection());
+		Assertions.assertEquals(2, limiter.getAvailablePermits());
+	}
+
+	@Test
+	public void connectionShouldDelegateToTargetConnection() throws SQLException {
+		Connection pooled = Mockito.mock(Connection.class);
+		Mockito.when(target.getConnection()).thenReturn(pooled);
+
+		Connection connection = limiter.getConnection();
+		connection.setAutoCommit(false);
+		connection.close();
+
+		Mockito.verify(pooled).setAutoCommit(false);
+		Mockito.verify(pooled).close();
+	}
+}
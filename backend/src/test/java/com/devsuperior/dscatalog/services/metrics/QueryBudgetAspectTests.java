@@ -0,0 +1,72 @@
+package com.devsuperior.dscatalog.services.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.services.exceptions.QueryBudgetExceededException;
+
+public class QueryBudgetAspectTests {
+
+	private QueryBudgetAspect aspect;
+	private Repository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		aspect = new QueryBudgetAspect();
+		AspectJProxyFactory factory = new AspectJProxyFactory(new Repository());
+		factory.addAspect(aspect);
+		repository = factory.getProxy();
+	}
+
+	@Test
+	public void enforceShouldReturnWhenWithinBudget() {
+		ReflectionTestUtils.setField(aspect, "strict", true);
+
+		Assertions.assertEquals(2, repository.query(2));
+		Assertions.assertNull(SqlStatistics.current());
+	}
+
+	@Test
+	public void enforceShouldThrowQueryBudgetExceededExceptionWhenOverBudgetAndStrict() {
+		ReflectionTestUtils.setField(aspect, "strict", true);
+
+		Assertions.assertThrows(QueryBudgetExceededException.class, () -> repository.query(3));
+		Assertions.assertNull(SqlStatistics.current());
+	}
+
+	@Test
+	public void enforceShouldOnlyWarnWhenOverBudgetAndNotStrict() {
+		Assertions.assertEquals(3, repository.query(3));
+	}
+
+	@Test
+	public void enforceShouldCountOnlyStatementsOfTheMethodWhenRequestCounterIsActive() {
+		ReflectionTestUtils.setField(aspect, "strict", true);
+		SqlStatistics.start();
+		try {
+			repository.query(2);
+			repository.query(2);
+
+			Assertions.assertEquals(4, SqlStatistics.current().getStatements());
+		} finally {
+			SqlStatistics.stop();
+		}
+	}
+
+	public static class Repository {
+
+		private final SqlStatistics statistics = new SqlStatistics();
+
+		@QueryBudget(2)
+		public int query(int statements) {
+			for (int i = 0; i < statements; i++) {
+				statistics.beforeQuery(null, null);
+				statistics.afterQuery(null, null);
+			}
+			return statements;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.devsuperior.dscatalog.services.pagination;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.services.exceptions.BadRequestException;
+
+public class KeysetPagesTests {
+
+	private final List<Category> rows = List.of(new Category(1L, "Livros"), new Category(2L, "Eletrônicos"),
+			new Category(3L, "Computadores"));
+
+	private final KeysetPages.Fetcher<Category> fetcher = (sortKey, cursor, limit) -> rows.stream()
+			.filter(x -> cursor == null || x.getId() > cursor.getId()).limit(limit).collect(Collectors.toList());
+
+	@Test
+	public void findShouldTrimExtraRowAndEncodeCursorOfLastRowReturned() {
+		CursorPageDTO<String> page = KeysetPages.find(null, 2, "name", fetcher, Category::getId, Category::getName,
+				Category::getName);
+
+		Assertions.assertEquals(List.of("Livros", "Eletrônicos"), page.getContent());
+		KeysetCursor next = KeysetCursor.decode(page.getNext());
+		Assertions.assertEquals(KeysetCursor.SORT_NAME, next.getSort());
+		Assertions.assertEquals(2L, next.getId());
+		Assertions.assertEquals("Eletrônicos", next.getValue());
+	}
+
+	@Test
+	public void findShouldReturnNoCursorOnLastPage() {
+		String after = new KeysetCursor(KeysetCursor.SORT_ID, 2L, null).encode();
+
+		CursorPageDTO<String> page = KeysetPages.find(after, 2, "name", fetcher, Category::getId, Category::getName,
+				Category::getName);
+
+		Assertions.assertEquals(List.of("Computadores"), page.getContent());
+		Assertions.assertFalse(page.isHasNext());
+	}
+
+	@Test
+	public void findShouldThrowBadRequestExceptionWhenSortIsDescending() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			KeysetPages.find(null, 2, "name,desc", fetcher, Category::getId, Category::getName, Category::getName);
+		});
+	}
+}
@@ -0,0 +1,87 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.services.search.FacetIndex.Result;
+
+public class FacetIndexTests {
+
+	private FacetIndex index;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new FacetIndex(new double[] { 0, 100, 1000 });
+		index.put(1, 50.0, List.of(1L));
+		index.put(2, 150.0, List.of(1L, 2L));
+		index.put(3, 900.0, List.of(2L));
+		index.put(4, 1500.0, List.of(2L));
+	}
+	
+	@Test
+	public void queryShouldIntersectCategoryAndPriceFilters() {
+		Result result = index.query(List.of(2L), 100.0, 1000.0);
+		
+		Assertions.assertEquals(2, result.getTotal());
+		Assertions.assertArrayEquals(new long[] { 2, 3 }, result.page(0, 10));
+	}
+	
+	@Test
+	public void queryShouldCountFacetsDisjunctively() {
+		Result result = index.query(List.of(1L), 100.0, null);
+		
+		Assertions.assertEquals(1, result.getTotal());
+		Assertions.assertEquals(1, result.getCategoryCounts().get(1L));
+		Assertions.assertEquals(3, result.getCategoryCounts().get(2L));
+		Assertions.assertArrayEquals(new int[] { 1, 1, 0 }, result.getBucketCounts());
+	}
+	
+	@Test
+	public void queryShouldCheckExactPricesInsidePartiallyCoveredBuckets() {
+		Result result = index.query(null, 120.0, 950.0);
+		
+		Assertions.assertArrayEquals(new long[] { 2, 3 }, result.page(0, 10));
+	}
+	
+	@Test
+	public void putShouldReplaceMembershipsOfExistingOrdinal() {
+		index.put(2, 2000.0, List.of(2L));
+		Result result = index.query(List.of(1L), null, null);
+		
+		Assertions.assertArrayEquals(new long[] { 1 }, result.page(0, 10));
+		Assertions.assertArrayEquals(new int[] { 1, 1, 2 }, index.query(null, null, null).getBucketCounts());
+	}
+	
+	@Test
+	public void queryShouldKeepPricesBelowTheFirstBoundInTheLowestBucket() {
+		index = new FacetIndex(new double[] { 10, 100 });
+		index.put(1, 5.0, List.of(1L));
+		index.put(2, 50.0, List.of(1L));
+		
+		Assertions.assertArrayEquals(new int[] { 2, 0 }, index.query(null, null, null).getBucketCounts());
+		Assertions.assertArrayEquals(new long[] { 1 }, index.query(null, null, 20.0).page(0, 10));
+		Assertions.assertArrayEquals(new long[] { 1, 2 }, index.query(List.of(1L), 0.0, 99.0).page(0, 10));
+	}
+	
+	@Test
+	public void queryShouldReturnIdsBeyondIntegerRange() {
+		long id = Integer.MAX_VALUE + 10L;
+		index.put(id, 120.0, List.of(1L));
+		index.remove(1);
+		
+		Result result = index.query(List.of(1L), null, null);
+		
+		Assertions.assertArrayEquals(new long[] { 2, id }, result.page(0, 10));
+	}
+	
+	@Test
+	public void pageShouldSkipOffset() {
+		Result result = index.query(null, null, null);
+		
+		Assertions.assertArrayEquals(new long[] { 3, 4 }, result.page(2, 5));
+		Assertions.assertEquals(0, result.page(4, 5).length);
+	}
+}
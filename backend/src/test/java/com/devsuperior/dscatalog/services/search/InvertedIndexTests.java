@@ -0,0 +1,68 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devsuperior.dscatalog.services.search.InvertedIndex.SearchResult;
+
+public class InvertedIndexTests {
+
+	private InvertedIndex index;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new InvertedIndex();
+		index.put(1L, "Notebook Dell", "Computadores e Eletrônicos");
+		index.put(2L, "Smart TV", "Televisão para sala");
+		index.put(3L, "Notebook Gamer", "Notebook com placa de vídeo");
+	}
+	
+	@Test
+	public void searchShouldMatchIgnoringAccentsAndCase() {
+		SearchResult result = index.search("ELETRONICOS", 10);
+		
+		Assertions.assertEquals(1, result.getTotalHits());
+		Assertions.assertEquals(1L, result.getIds()[0]);
+	}
+	
+	@Test
+	public void searchShouldRankHigherTermFrequencyFirst() {
+		SearchResult result = index.search("notebook", 10);
+		
+		Assertions.assertEquals(2, result.getTotalHits());
+		Assertions.assertEquals(3L, result.getIds()[0]);
+		Assertions.assertEquals(1L, result.getIds()[1]);
+	}
+	
+	@Test
+	public void searchShouldReturnOnlyLimitButCountAllHits() {
+		SearchResult result = index.search("notebook", 1);
+		
+		Assertions.assertEquals(2, result.getTotalHits());
+		Assertions.assertEquals(1, result.getIds().length);
+	}
+	
+	@Test
+	public void putShouldReplacePreviousVersionOfDocument() {
+		index.put(2L, "Smart TV", "Notebook stand");
+		
+		Assertions.assertEquals(3, index.search("notebook", 10).getTotalHits());
+		Assertions.assertEquals(0, index.search("televisao", 10).getTotalHits());
+		Assertions.assertEquals(3, index.size());
+	}
+	
+	@Test
+	public void removeShouldHideDocumentFromResultsAfterCompaction() {
+		for (long id = 10; id < 3000; id++) {
+			index.put(id, "Livro " + id, null);
+		}
+		for (long id = 10; id < 3000; id++) {
+			index.remove(id);
+		}
+		
+		Assertions.assertEquals(0, index.search("livro", 10).getTotalHits());
+		Assertions.assertEquals(2, index.search("notebook", 10).getTotalHits());
+		Assertions.assertEquals(3, index.size());
+	}
+}
@@ -0,0 +1,87 @@
+package com.devsuperior.dscatalog.services.security;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.services.exceptions.TooManyRequestsException;
+
+public class PasswordHasherTests {
+
+	private BCryptPasswordEncoder encoder;
+	private PasswordHasher hasher;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		encoder = new BCryptPasswordEncoder(4);
+		hasher = new PasswordHasher();
+		ReflectionTestUtils.setField(hasher, "passwordEncoder", encoder);
+		ReflectionTestUtils.setField(hasher, "threads", 2);
+		ReflectionTestUtils.setField(hasher, "queueCapacity", 1);
+		hasher.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		hasher.stop();
+	}
+
+	@Test
+	public void encodeShouldReturnBCryptHash() {
+		String hash = hasher.encode("123456");
+
+		Assertions.assertTrue(encoder.matches("123456", hash));
+	}
+
+	@Test
+	public void encodeAllShouldReturnHashesInInputOrder() {
+		List<String> passwords = List.of("a1", "b2", "c3", "d4", "e5");
+
+		List<String> hashes = hasher.encodeAll(passwords);
+
+		Assertions.assertEquals(passwords.size(), hashes.size());
+		for (int i = 0; i < passwords.size(); i++) {
+			Assertions.assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+		}
+	}
+
+	@Test
+	public void encodeShouldThrowTooManyRequestsExceptionWhenQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BCryptPasswordEncoder blocking = Mockito.mock(BCryptPasswordEncoder.class);
+		Mockito.when(blocking.encode(ArgumentMatchers.any())).thenAnswer(x -> {
+			release.await();
+			return "hash";
+		});
+		ReflectionTestUtils.setField(hasher, "passwordEncoder", blocking);
+
+		ExecutorService callers = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<String>> busy = List.of(callers.submit(() -> hasher.encode("a")),
+					callers.submit(() -> hasher.encode("b")), callers.submit(() -> hasher.encode("c")));
+			Mockito.verify(blocking, Mockito.timeout(5000).times(2)).encode(ArgumentMatchers.any());
+			Thread.sleep(100);
+
+			Assertions.assertThrows(TooManyRequestsException.class, () -> hasher.encode("d"));
+
+			release.countDown();
+			for (Future<String> future : busy) {
+				Assertions.assertEquals("hash", future.get());
+			}
+		} finally {
+			release.countDown();
+			callers.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.devsuperior.dscatalog.services.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTests {
+
+	@Test
+	public void mightContainShouldReturnTrueForEveryPutValue() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i + "@gmail.com");
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			Assertions.assertTrue(filter.mightContain("user" + i + "@gmail.com"));
+		}
+	}
+
+	@Test
+	public void mightContainShouldStayNearTargetFalsePositiveRateWhenFull() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i + "@gmail.com");
+		}
+
+		int hits = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i + "@gmail.com")) {
+				hits++;
+			}
+		}
+		Assertions.assertTrue(hits < 2_000, "false positives: " + hits);
+		Assertions.assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+	}
+
+	@Test
+	public void putShouldNotLoseValuesWhenCalledConcurrently() throws Exception {
+		BloomFilter filter = new BloomFilter(40_000, 0.01);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						filter.put(thread + "-" + i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		for (int t = 0; t < 4; t++) {
+			for (int i = 0; i < 10_000; i++) {
+				Assertions.assertTrue(filter.mightContain(t + "-" + i));
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.devsuperior.dscatalog.services.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.devsuperior.dscatalog.repositories.UserRepository;
+
+@ExtendWith(SpringExtension.class)
+public class EmailFilterTests {
+
+	@InjectMocks
+	private EmailFilter filter;
+
+	@Mock
+	private UserRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(filter, "expectedEntries", 100L);
+		ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[] { 1L, "alex@gmail.com" });
+		rows.add(new Object[] { 2L, "maria@gmail.com" });
+		Mockito.when(repository.count()).thenReturn(2L);
+		Mockito.when(repository.findEmailsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any())).thenReturn(rows);
+		Mockito.when(repository.findEmailsAfter(ArgumentMatchers.eq(2L), ArgumentMatchers.any())).thenReturn(List.of());
+	}
+
+	@Test
+	public void mightContainShouldReturnTrueBeforeFilterIsLoaded() {
+		Assertions.assertTrue(filter.mightContain("new@gmail.com"));
+	}
+
+	@Test
+	public void mightContainShouldReturnTrueForLoadedAndPutEmails() {
+		filter.rebuild();
+		filter.put("new@gmail.com");
+
+		Assertions.assertTrue(filter.mightContain("alex@gmail.com"));
+		Assertions.assertTrue(filter.mightContain("maria@gmail.com"));
+		Assertions.assertTrue(filter.mightContain("new@gmail.com"));
+	}
+
+	@Test
+	public void mightContainShouldReturnFalseForMostUnknownEmails() {
+		filter.rebuild();
+
+		long misses = 0;
+		for (int i = 0; i < 100; i++) {
+			if (!filter.mightContain("user" + i + "@gmail.com")) {
+				misses++;
+			}
+		}
+		Assertions.assertTrue(misses > 90);
+	}
+
+	@Test
+	public void mightContainShouldStillReturnTrueForStaleEmailUntilRebuild() {
+		filter.rebuild();
+		filter.markStale();
+		Assertions.assertTrue(filter.mightContain("alex@gmail.com"));
+
+		for (int i = 0; i < 1000; i++) {
+			filter.markStale();
+		}
+		Mockito.when(repository.count()).thenReturn(1L);
+		Mockito.when(repository.findEmailsAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any()))
+				.thenReturn(List.<Object[]>of(new Object[] { 2L, "maria@gmail.com" }));
+		filter.rebuildIfDegraded();
+
+		Mockito.verify(repository, Mockito.times(2)).count();
+		Assertions.assertFalse(filter.mightContain("alex@gmail.com"));
+		Assertions.assertTrue(filter.mightContain("maria@gmail.com"));
+	}
+
+	@Test
+	public void rebuildIfDegradedShouldRebuildOnlyWhenFalsePositiveRateExceedsTarget() {
+		filter.rebuild();
+		filter.rebuildIfDegraded();
+		Mockito.verify(repository, Mockito.times(1)).count();
+
+		for (int i = 0; i < 1000; i++) {
+			filter.put("user" + i + "@gmail.com");
+		}
+		filter.rebuildIfDegraded();
+		Mockito.verify(repository, Mockito.times(2)).count();
+	}
+}